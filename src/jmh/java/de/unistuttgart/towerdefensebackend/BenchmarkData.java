@@ -0,0 +1,64 @@
+package de.unistuttgart.towerdefensebackend;
+
+import de.unistuttgart.towerdefensebackend.data.Configuration;
+import de.unistuttgart.towerdefensebackend.data.GameResultDTO;
+import de.unistuttgart.towerdefensebackend.data.Question;
+import de.unistuttgart.towerdefensebackend.data.QuestionResultDTO;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Creates the test data of the benchmarks.
+ */
+public final class BenchmarkData {
+
+    private BenchmarkData() {}
+
+    /**
+     * @param questionCount the number of questions
+     * @return a configuration with the given number of questions, each with three wrong answers
+     */
+    public static Configuration createConfiguration(final int questionCount) {
+        final Set<Question> questions = new HashSet<>();
+        for (int i = 0; i < questionCount; i++) {
+            final Question question = new Question(
+                    "question " + i,
+                    "answer " + i,
+                    new HashSet<>(Set.of("wrong answer " + i + "a", "wrong answer " + i + "b", "wrong answer " + i + "c"))
+            );
+            question.setId(UUID.randomUUID());
+            questions.add(question);
+        }
+        final Configuration configuration = new Configuration(questions);
+        configuration.setId(UUID.randomUUID());
+        return configuration;
+    }
+
+    /**
+     * @param questionCount the number of answered questions
+     * @return a game result in which half of the questions were answered correctly
+     */
+    public static GameResultDTO createGameResultDTO(final int questionCount) {
+        final List<QuestionResultDTO> correctAnsweredQuestions = new ArrayList<>();
+        final List<QuestionResultDTO> wrongAnsweredQuestions = new ArrayList<>();
+        for (int i = 0; i < questionCount; i++) {
+            final QuestionResultDTO questionResult = new QuestionResultDTO(UUID.randomUUID(), "answer " + i);
+            (i % 2 == 0 ? correctAnsweredQuestions : wrongAnsweredQuestions).add(questionResult);
+        }
+        return new GameResultDTO(
+                questionCount,
+                correctAnsweredQuestions.size(),
+                wrongAnsweredQuestions.size(),
+                correctAnsweredQuestions.size() * 10,
+                correctAnsweredQuestions,
+                wrongAnsweredQuestions,
+                UUID.randomUUID(),
+                50,
+                5
+        );
+    }
+}
@@ -0,0 +1,69 @@
+package de.unistuttgart.towerdefensebackend;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.unistuttgart.towerdefensebackend.data.ConfigurationDTO;
+import de.unistuttgart.towerdefensebackend.data.GameResultDTO;
+import de.unistuttgart.towerdefensebackend.data.mapper.ConfigurationMapperImpl;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Benchmarks the Jackson serialization of the DTOs that are sent and received most often.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    int questionCount;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private ConfigurationDTO configurationDTO;
+    private GameResultDTO gameResultDTO;
+    private byte[] configurationJson;
+    private byte[] gameResultJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        configurationDTO =
+                new ConfigurationMapperImpl()
+                        .configurationToConfigurationDTO(BenchmarkData.createConfiguration(questionCount));
+        gameResultDTO = BenchmarkData.createGameResultDTO(questionCount);
+        configurationJson = objectMapper.writeValueAsBytes(configurationDTO);
+        gameResultJson = objectMapper.writeValueAsBytes(gameResultDTO);
+    }
+
+    @Benchmark
+    public byte[] serializeConfigurationDTO() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(configurationDTO);
+    }
+
+    @Benchmark
+    public ConfigurationDTO deserializeConfigurationDTO() throws IOException {
+        return objectMapper.readValue(configurationJson, ConfigurationDTO.class);
+    }
+
+    @Benchmark
+    public byte[] serializeGameResultDTO() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(gameResultDTO);
+    }
+
+    @Benchmark
+    public GameResultDTO deserializeGameResultDTO() throws IOException {
+        return objectMapper.readValue(gameResultJson, GameResultDTO.class);
+    }
+}
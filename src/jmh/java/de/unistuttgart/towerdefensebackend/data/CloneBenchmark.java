@@ -0,0 +1,45 @@
+package de.unistuttgart.towerdefensebackend.data;
+
+import de.unistuttgart.towerdefensebackend.BenchmarkData;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the cloning of configurations and questions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CloneBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    int questionCount;
+
+    private Configuration configuration;
+    private Question question;
+
+    @Setup
+    public void setUp() {
+        configuration = BenchmarkData.createConfiguration(questionCount);
+        question = configuration.getQuestions().iterator().next();
+    }
+
+    @Benchmark
+    public Configuration cloneConfiguration() {
+        return configuration.clone();
+    }
+
+    @Benchmark
+    public Question cloneQuestion() {
+        return question.clone();
+    }
+}
@@ -0,0 +1,65 @@
+package de.unistuttgart.towerdefensebackend.data.mapper;
+
+import de.unistuttgart.towerdefensebackend.BenchmarkData;
+import de.unistuttgart.towerdefensebackend.data.Configuration;
+import de.unistuttgart.towerdefensebackend.data.ConfigurationDTO;
+import de.unistuttgart.towerdefensebackend.data.Question;
+import de.unistuttgart.towerdefensebackend.data.QuestionDTO;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the MapStruct mappers of configurations and questions on large question sets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapperBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    int questionCount;
+
+    private final ConfigurationMapper configurationMapper = new ConfigurationMapperImpl();
+    private final QuestionMapper questionMapper = new QuestionMapperImpl();
+
+    private Configuration configuration;
+    private ConfigurationDTO configurationDTO;
+    private Set<QuestionDTO> questionDTOs;
+
+    @Setup
+    public void setUp() {
+        configuration = BenchmarkData.createConfiguration(questionCount);
+        configurationDTO = configurationMapper.configurationToConfigurationDTO(configuration);
+        questionDTOs = configurationDTO.getQuestions();
+    }
+
+    @Benchmark
+    public ConfigurationDTO configurationToConfigurationDTO() {
+        return configurationMapper.configurationToConfigurationDTO(configuration);
+    }
+
+    @Benchmark
+    public Configuration configurationDTOToConfiguration() {
+        return configurationMapper.configurationDTOToConfiguration(configurationDTO);
+    }
+
+    @Benchmark
+    public Set<QuestionDTO> questionsToQuestionDTOs() {
+        return questionMapper.questionsToQuestionDTOs(configuration.getQuestions());
+    }
+
+    @Benchmark
+    public Set<Question> questionDTOsToQuestions() {
+        return questionMapper.questionDTOsToQuestions(questionDTOs);
+    }
+}
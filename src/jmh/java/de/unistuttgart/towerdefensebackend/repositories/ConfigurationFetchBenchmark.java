@@ -0,0 +1,160 @@
+package de.unistuttgart.towerdefensebackend.repositories;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import de.unistuttgart.towerdefensebackend.TowerDefenseServiceApplication;
+import de.unistuttgart.towerdefensebackend.data.ConfigurationDTO;
+import de.unistuttgart.towerdefensebackend.data.QuestionDTO;
+import de.unistuttgart.towerdefensebackend.data.mapper.ConfigurationMapper;
+import de.unistuttgart.towerdefensebackend.service.ConfigService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Benchmarks loading a configuration with all its questions and wrong answers from an embedded PostgreSQL database
+ * and mapping it to a DTO, for configurations of different sizes.
+ * <p>
+ * {@link #entityGraph()} is the read path, which loads the questions with the Configuration.withQuestions entity
+ * graph and the wrong answers in batches. {@link #batchFetch()} loads the questions lazily, in batches as well.
+ * {@link #perQuestion()} issues the queries of the former fetch plan, i.e. the configuration with its eager questions
+ * and one query for the wrong answers of every question.
+ * The number of statements of each variant is printed once in the setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ConfigurationFetchBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    int questionCount;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private ConfigurationRepository configurationRepository;
+    private ConfigurationMapper configurationMapper;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+    private UUID configurationId;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Hibernate and Flyway log on info level without a logging configuration
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        postgres = EmbeddedPostgres.builder().start();
+        context =
+                new SpringApplicationBuilder(TowerDefenseServiceApplication.class)
+                        .run(
+                                "--server.port=0",
+                                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                                "--spring.jpa.properties.hibernate.generate_statistics=true",
+                                "--logging.level.root=WARN"
+                        );
+        configurationRepository = context.getBean(ConfigurationRepository.class);
+        configurationMapper = context.getBean(ConfigurationMapper.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        final Set<QuestionDTO> questions = new HashSet<>();
+        for (int i = 0; i < questionCount; i++) {
+            questions.add(
+                    new QuestionDTO(
+                            null,
+                            "question " + i,
+                            "answer " + i,
+                            new HashSet<>(Set.of("wrong answer " + i + "a", "wrong answer " + i + "b"))
+                    )
+            );
+        }
+        configurationId = context.getBean(ConfigService.class).saveConfiguration(new ConfigurationDTO(questions)).getId();
+
+        final Statistics statistics = context
+                .getBean(EntityManagerFactory.class)
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        System.out.printf(
+                "%n%s questions: entityGraph %s statements, batchFetch %s statements, perQuestion %s statements%n",
+                questionCount,
+                countStatements(statistics, this::entityGraph),
+                countStatements(statistics, this::batchFetch),
+                1 + questionCount
+        );
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public ConfigurationDTO entityGraph() {
+        return transactionTemplate.execute(status ->
+                configurationMapper.configurationToConfigurationDTO(
+                        configurationRepository.findWithQuestionsById(configurationId).orElseThrow()
+                )
+        );
+    }
+
+    @Benchmark
+    public ConfigurationDTO batchFetch() {
+        return transactionTemplate.execute(status ->
+                configurationMapper.configurationToConfigurationDTO(
+                        configurationRepository.findById(configurationId).orElseThrow()
+                )
+        );
+    }
+
+    @Benchmark
+    public int perQuestion() {
+        final List<Map<String, Object>> questions = jdbcTemplate.queryForList(
+                "SELECT c.id, c.volume_level, q.id AS question_id, q.text, q.correct_answer FROM configuration c " +
+                "LEFT JOIN configuration_questions cq ON cq.configuration_id = c.id " +
+                "LEFT JOIN question q ON q.id = cq.questions_id WHERE c.id = ?",
+                configurationId
+        );
+        int answers = 0;
+        for (final Map<String, Object> question : questions) {
+            answers +=
+                    jdbcTemplate
+                            .queryForList(
+                                    "SELECT wrong_answers FROM question_wrong_answers WHERE question_id = ?",
+                                    String.class,
+                                    question.get("question_id")
+                            )
+                            .size();
+        }
+        return answers;
+    }
+
+    private static long countStatements(final Statistics statistics, final Supplier<?> load) {
+        statistics.clear();
+        load.get();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,144 @@
+package de.unistuttgart.towerdefensebackend.service;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import de.unistuttgart.towerdefensebackend.BenchmarkData;
+import de.unistuttgart.towerdefensebackend.clients.OverworldClient;
+import de.unistuttgart.towerdefensebackend.data.Configuration;
+import de.unistuttgart.towerdefensebackend.data.ConfigurationDTO;
+import de.unistuttgart.towerdefensebackend.data.mapper.ConfigurationMapperImpl;
+import de.unistuttgart.towerdefensebackend.repositories.ConfigurationRepository;
+import feign.Feign;
+import feign.httpclient.ApacheHttpClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Benchmarks the game start, i.e. loading a configuration together with the volume level of the player.
+ * The overworld-backend is replaced by WireMock with a fixed delay, the database by a repository stub that sleeps
+ * for the given latency. The configuration cache is disabled and the volume level is always refreshed, so every
+ * invocation waits for both.
+ * <p>
+ * {@link #sequential()} retrieves the volume level before loading the configuration,
+ * {@link #concurrent()} is the implementation of {@link ConfigService#getAllConfigurations}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GameStartBenchmark {
+
+    @Param({ "20" })
+    int overworldLatencyMillis;
+
+    @Param({ "20" })
+    int databaseLatencyMillis;
+
+    private final Configuration configuration = BenchmarkData.createConfiguration(10);
+    private final String accessToken = JWT.create().withSubject("player").sign(Algorithm.HMAC256("benchmark"));
+
+    private WireMockServer overworld;
+    private VolumeLevelCache volumeLevelCache;
+    private ConfigService configService;
+
+    @Setup
+    public void setUp() {
+        // WireMock and the HTTP client log every request on debug level without a logging configuration
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        overworld = new WireMockServer(options().dynamicPort());
+        overworld.start();
+        overworld.stubFor(
+                get(urlPathMatching("/players/.*/keybindings/VOLUME_LEVEL"))
+                        .willReturn(
+                                okJson("{\"binding\":\"VOLUME_LEVEL\",\"key\":\"3\"}")
+                                        .withFixedDelay(overworldLatencyMillis)
+                        )
+        );
+        final OverworldClient overworldClient = Feign
+                .builder()
+                .client(new ApacheHttpClient())
+                .contract(new SpringMvcContract())
+                .decoder(new SpringDecoder(() -> new HttpMessageConverters(new MappingJackson2HttpMessageConverter())))
+                .target(OverworldClient.class, overworld.baseUrl() + "/players");
+
+        volumeLevelCache = new VolumeLevelCache();
+        ReflectionTestUtils.setField(volumeLevelCache, "overworldClient", overworldClient);
+        ReflectionTestUtils.setField(volumeLevelCache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(volumeLevelCache, "ttl", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(volumeLevelCache, "retention", Duration.ofHours(1));
+        ReflectionTestUtils.setField(volumeLevelCache, "maximumSize", 10000L);
+        ReflectionTestUtils.setField(volumeLevelCache, "deadline", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(volumeLevelCache, "poolSize", 16);
+        ReflectionTestUtils.setField(volumeLevelCache, "queueCapacity", 100);
+        volumeLevelCache.initCache();
+        volumeLevelCache.initExecutor();
+
+        configService = new ConfigService();
+        configService.configurationMapper = new ConfigurationMapperImpl();
+        configService.configurationRepository =
+                (ConfigurationRepository) Proxy.newProxyInstance(
+                        ConfigurationRepository.class.getClassLoader(),
+                        new Class<?>[] { ConfigurationRepository.class },
+                        (proxy, method, args) -> {
+                            Thread.sleep(databaseLatencyMillis);
+                            return Optional.of(configuration);
+                        }
+                );
+        ReflectionTestUtils.setField(configService, "volumeLevelCache", volumeLevelCache);
+        ReflectionTestUtils.setField(configService, "cacheManager", new NoOpCacheManager());
+    }
+
+    @TearDown
+    public void tearDown() {
+        volumeLevelCache.shutdownExecutor();
+        overworld.stop();
+    }
+
+    @Benchmark
+    public ConfigurationDTO sequential() {
+        final int volumeLevel = volumeLevelCache.getVolumeLevel("player", accessToken, true).join();
+        final ConfigurationDTO configurationDTO = configService.getConfigurationDTO(configuration.getId());
+        return new ConfigurationDTO(
+                configurationDTO.getId(),
+                configurationDTO.getQuestions(),
+                volumeLevel,
+                configurationDTO.getVersion()
+        );
+    }
+
+    @Benchmark
+    public ConfigurationDTO concurrent() {
+        return configService.getAllConfigurations(
+                configuration.getId(),
+                configService.getVolumeLevel("player", accessToken, true)
+        );
+    }
+}
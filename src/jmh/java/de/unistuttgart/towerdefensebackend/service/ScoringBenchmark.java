@@ -0,0 +1,64 @@
+package de.unistuttgart.towerdefensebackend.service;
+
+import de.unistuttgart.towerdefensebackend.repositories.PerfectScoreCounterRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the score and rewards calculation of the GameResultService.
+ * The perfect score counter repository is replaced by a stub, so only the in-memory part of the calculation is
+ * measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ScoringBenchmark {
+
+    private static final String PLAYER_ID = "player";
+
+    private final GameResultService gameResultService = new GameResultService();
+    private final UUID configurationId = UUID.randomUUID();
+    private final UUID exhaustedConfigurationId = UUID.randomUUID();
+
+    @Setup
+    public void setUp() {
+        gameResultService.perfectScoreCounterRepository =
+                (PerfectScoreCounterRepository) Proxy.newProxyInstance(
+                        PerfectScoreCounterRepository.class.getClassLoader(),
+                        new Class<?>[] { PerfectScoreCounterRepository.class },
+                        (proxy, method, args) -> args[1].equals(exhaustedConfigurationId) ? Integer.MAX_VALUE : 1
+                );
+        // remembers the exhausted counter in memory
+        gameResultService.calculateRewards(100, PLAYER_ID, exhaustedConfigurationId);
+    }
+
+    @Benchmark
+    public long calculateResultScore() {
+        return gameResultService.calculateResultScore(7, 10);
+    }
+
+    @Benchmark
+    public int calculateRewards() {
+        return gameResultService.calculateRewards(70, PLAYER_ID, configurationId);
+    }
+
+    @Benchmark
+    public int calculateRewardsOfPerfectScore() {
+        return gameResultService.calculateRewards(100, PLAYER_ID, configurationId);
+    }
+
+    @Benchmark
+    public int calculateRewardsOfExhaustedPerfectScore() {
+        return gameResultService.calculateRewards(100, PLAYER_ID, exhaustedConfigurationId);
+    }
+}
@@ -0,0 +1,72 @@
+package de.unistuttgart.towerdefensebackend.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Records the latencies and failures of one kind of request.
+ */
+class LatencyRecorder {
+
+    private final String name;
+    private long[] latencies = new long[1024];
+    private int count;
+    private int failures;
+
+    LatencyRecorder(final String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    synchronized void record(final long latencyNanos, final boolean failed) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        if (failed) {
+            failures++;
+        }
+    }
+
+    synchronized int getCount() {
+        return count;
+    }
+
+    synchronized double getErrorRate() {
+        return count == 0 ? 0 : (double) failures / count;
+    }
+
+    /**
+     * @param percentile the percentile between 0 and 100
+     * @return the latency of the percentile in milliseconds
+     */
+    synchronized double getPercentileMillis(final double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        final long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        final int index = (int) Math.ceil(percentile / 100 * count) - 1;
+        return sorted[Math.max(0, Math.min(index, count - 1))] / 1_000_000.0;
+    }
+
+    /**
+     * @param durationSeconds the duration of the measurement
+     * @return the summary of the recorded requests
+     */
+    synchronized Map<String, Object> summarize(final double durationSeconds) {
+        final Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", count);
+        summary.put("failures", failures);
+        summary.put("throughput", count / durationSeconds);
+        summary.put("p50", getPercentileMillis(50));
+        summary.put("p90", getPercentileMillis(90));
+        summary.put("p99", getPercentileMillis(99));
+        summary.put("max", getPercentileMillis(100));
+        return summary;
+    }
+}
@@ -0,0 +1,325 @@
+package de.unistuttgart.towerdefensebackend.loadtest;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import de.unistuttgart.towerdefensebackend.TowerDefenseServiceApplication;
+import de.unistuttgart.towerdefensebackend.data.ConfigurationDTO;
+import de.unistuttgart.towerdefensebackend.data.QuestionDTO;
+import de.unistuttgart.towerdefensebackend.service.ConfigService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.File;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Boots the application with an embedded Postgres database and a WireMock stand-in for the overworld-backend and
+ * Keycloak, drives a mix of game-start and game-end requests and checks the throughput, latency percentiles and
+ * error rate against thresholds.
+ * <p>
+ * The load is configured with system properties:
+ * <ul>
+ *     <li>loadtest.threads: number of concurrent virtual players (default 16)</li>
+ *     <li>loadtest.warmup: warmup in seconds, not measured (default 10)</li>
+ *     <li>loadtest.duration: measured duration in seconds (default 30)</li>
+ *     <li>loadtest.game-end-ratio: share of game-end requests between 0 and 1 (default 0.5)</li>
+ *     <li>loadtest.players: number of distinct players (default 200)</li>
+ *     <li>loadtest.questions: number of questions of the configuration (default 10)</li>
+ *     <li>loadtest.overworld-delay: latency of the overworld-backend stand-in in milliseconds (default 20)</li>
+ *     <li>loadtest.max-p99: maximal 99th percentile latency of each request kind in milliseconds (default 250)</li>
+ *     <li>loadtest.min-throughput: minimal total throughput in requests per second (default 100)</li>
+ *     <li>loadtest.max-error-rate: maximal share of failed requests of each kind (default 0.001)</li>
+ * </ul>
+ * The report is written to target/loadtest-result.json. The process exits with 1 if a threshold is violated.
+ */
+public class LoadTest {
+
+    private static final String KEY_ID = "loadtest";
+    private static final String REALM = "/keycloak/realms/Gamify-IT";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private final int threads = Integer.getInteger("loadtest.threads", 16);
+    private final int warmup = Integer.getInteger("loadtest.warmup", 10);
+    private final int duration = Integer.getInteger("loadtest.duration", 30);
+    private final double gameEndRatio = Double.parseDouble(System.getProperty("loadtest.game-end-ratio", "0.5"));
+    private final int players = Integer.getInteger("loadtest.players", 200);
+    private final int questionCount = Integer.getInteger("loadtest.questions", 10);
+    private final int overworldDelay = Integer.getInteger("loadtest.overworld-delay", 20);
+    private final double maxP99 = Double.parseDouble(System.getProperty("loadtest.max-p99", "250"));
+    private final double minThroughput = Double.parseDouble(System.getProperty("loadtest.min-throughput", "100"));
+    private final double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.001"));
+
+    private String baseUrl;
+    private ConfigurationDTO configuration;
+    private List<String> accessTokens;
+
+    public static void main(final String[] args) throws Exception {
+        final boolean passed;
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            final WireMockServer wireMock = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+            wireMock.start();
+            try {
+                passed = new LoadTest().run(postgres, wireMock);
+            } finally {
+                wireMock.stop();
+            }
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private boolean run(final EmbeddedPostgres postgres, final WireMockServer wireMock) throws Exception {
+        final KeyPair keyPair = createKeyPair();
+        stubOverworldAndKeycloak(wireMock, (RSAPublicKey) keyPair.getPublic());
+        final String keycloakUrl = wireMock.baseUrl() + REALM;
+
+        // passed as command line arguments, so they override the application.properties
+        final String[] arguments = {
+                "--server.port=0",
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "--overworld.url=" + wireMock.baseUrl() + "/overworld/api/v1",
+                "--keycloak.url=" + keycloakUrl,
+                "--keycloak.issuer=" + keycloakUrl,
+                "--logging.level.root=WARN",
+        };
+        try (
+                ConfigurableApplicationContext context = new SpringApplicationBuilder(TowerDefenseServiceApplication.class)
+                        .run(arguments)
+        ) {
+            baseUrl =
+                    "http://localhost:" +
+                    context.getEnvironment().getProperty("local.server.port") +
+                    context.getEnvironment().getProperty("server.servlet.context-path", "");
+            configuration = context.getBean(ConfigService.class).saveConfiguration(createConfiguration());
+            accessTokens = createAccessTokens(keyPair, keycloakUrl);
+
+            System.out.printf("warmup for %s s%n", warmup);
+            drive(warmup, new LatencyRecorder("game-start"), new LatencyRecorder("game-end"));
+            final LatencyRecorder gameStart = new LatencyRecorder("game-start");
+            final LatencyRecorder gameEnd = new LatencyRecorder("game-end");
+            System.out.printf("measuring for %s s with %s threads%n", duration, threads);
+            drive(duration, gameStart, gameEnd);
+            return report(gameStart, gameEnd);
+        }
+    }
+
+    /**
+     * Sends requests from all threads for the given duration, each thread waits for its previous response.
+     *
+     * @throws IllegalStateException if a thread does not finish in time
+     * @throws ExecutionException    if a thread stopped with an exception, its requests would be missing silently
+     */
+    private void drive(final int seconds, final LatencyRecorder gameStart, final LatencyRecorder gameEnd)
+            throws InterruptedException, ExecutionException {
+        final long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final List<Future<?>> players = new ArrayList<>(threads);
+        for (int thread = 0; thread < threads; thread++) {
+            players.add(executor.submit(() -> {
+                final ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < end) {
+                    final String accessToken = accessTokens.get(random.nextInt(accessTokens.size()));
+                    final boolean isGameEnd = random.nextDouble() < gameEndRatio;
+                    if (isGameEnd) {
+                        send(gameEnd, gameEndRequest(accessToken));
+                    } else {
+                        send(gameStart, gameStartRequest(accessToken));
+                    }
+                }
+            }));
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(seconds + 60L, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+            throw new IllegalStateException("virtual players did not finish within " + (seconds + 60) + " s");
+        }
+        for (final Future<?> player : players) {
+            player.get();
+        }
+    }
+
+    private void send(final LatencyRecorder recorder, final HttpRequest request) {
+        final long start = System.nanoTime();
+        boolean failed;
+        try {
+            final HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            failed = response.statusCode() >= 400;
+        } catch (final Exception exception) {
+            failed = true;
+        }
+        recorder.record(System.nanoTime() - start, failed);
+    }
+
+    private HttpRequest gameStartRequest(final String accessToken) {
+        return HttpRequest
+                .newBuilder(URI.create(baseUrl + "/configurations/" + configuration.getId() + "/volume"))
+                .header("Cookie", "access_token=" + accessToken)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest gameEndRequest(final String accessToken) {
+        final List<Map<String, Object>> correctAnsweredQuestions = new ArrayList<>();
+        final List<Map<String, Object>> wrongAnsweredQuestions = new ArrayList<>();
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (final QuestionDTO question : configuration.getQuestions()) {
+            if (random.nextBoolean()) {
+                correctAnsweredQuestions.add(
+                        Map.of("questionUUId", question.getId(), "answer", question.getCorrectAnswer())
+                );
+            } else {
+                wrongAnsweredQuestions.add(
+                        Map.of("questionUUId", question.getId(), "answer", question.getWrongAnswers().iterator().next())
+                );
+            }
+        }
+        final Map<String, Object> result = new LinkedHashMap<>();
+        result.put("questionCount", questionCount);
+        result.put("correctQuestionsCount", correctAnsweredQuestions.size());
+        result.put("wrongQuestionsCount", wrongAnsweredQuestions.size());
+        result.put("points", correctAnsweredQuestions.size() * 10);
+        result.put("correctAnsweredQuestions", correctAnsweredQuestions);
+        result.put("wrongAnsweredQuestions", wrongAnsweredQuestions);
+        result.put("configurationAsUUID", configuration.getId());
+        try {
+            return HttpRequest
+                    .newBuilder(URI.create(baseUrl + "/results"))
+                    .header("Cookie", "access_token=" + accessToken)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(result)))
+                    .build();
+        } catch (final Exception exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * Prints and writes the report and checks the thresholds.
+     *
+     * @return whether all thresholds are met
+     */
+    private boolean report(final LatencyRecorder... recorders) throws Exception {
+        final Map<String, Object> report = new LinkedHashMap<>();
+        final List<String> violations = new ArrayList<>();
+        int total = 0;
+        for (final LatencyRecorder recorder : recorders) {
+            report.put(recorder.getName(), recorder.summarize(duration));
+            total += recorder.getCount();
+            final double p99 = recorder.getPercentileMillis(99);
+            if (p99 > maxP99) {
+                violations.add(String.format("%s p99 %.1f ms > %.1f ms", recorder.getName(), p99, maxP99));
+            }
+            final double errorRate = recorder.getErrorRate();
+            if (errorRate > maxErrorRate) {
+                violations.add(String.format("%s error rate %.4f > %.4f", recorder.getName(), errorRate, maxErrorRate));
+            }
+        }
+        final double throughput = (double) total / duration;
+        if (throughput < minThroughput) {
+            violations.add(String.format("throughput %.1f/s < %.1f/s", throughput, minThroughput));
+        }
+        report.put("throughput", throughput);
+        report.put("violations", violations);
+
+        final File reportFile = new File("target/loadtest-result.json");
+        reportFile.getParentFile().mkdirs();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportFile, report);
+        System.out.println(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+        violations.forEach(violation -> System.out.println("THRESHOLD VIOLATED: " + violation));
+        return violations.isEmpty();
+    }
+
+    private void stubOverworldAndKeycloak(final WireMockServer wireMock, final RSAPublicKey publicKey) {
+        wireMock.stubFor(
+                get(urlPathMatching("/overworld/api/v1/players/.*/keybindings/VOLUME_LEVEL"))
+                        .willReturn(
+                                okJson("{\"binding\":\"VOLUME_LEVEL\",\"key\":\"3\"}").withFixedDelay(overworldDelay)
+                        )
+        );
+        wireMock.stubFor(
+                post(urlPathEqualTo("/overworld/api/v1/internal/submit-game-pass"))
+                        .willReturn(ok().withFixedDelay(overworldDelay))
+        );
+        final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        final String jwks = String.format(
+                "{\"keys\":[{\"kty\":\"RSA\",\"kid\":\"%s\",\"use\":\"sig\",\"alg\":\"RS256\"," +
+                "\"n\":\"%s\",\"e\":\"%s\"}]}",
+                KEY_ID,
+                encoder.encodeToString(toUnsignedBytes(publicKey.getModulus())),
+                encoder.encodeToString(toUnsignedBytes(publicKey.getPublicExponent()))
+        );
+        wireMock.stubFor(get(urlPathEqualTo(REALM + "/protocol/openid-connect/certs")).willReturn(okJson(jwks)));
+    }
+
+    private List<String> createAccessTokens(final KeyPair keyPair, final String issuer) {
+        final Algorithm algorithm = Algorithm.RSA256(
+                (RSAPublicKey) keyPair.getPublic(),
+                (RSAPrivateKey) keyPair.getPrivate()
+        );
+        final List<String> tokens = new ArrayList<>(players);
+        for (int player = 0; player < players; player++) {
+            tokens.add(
+                    JWT
+                            .create()
+                            .withKeyId(KEY_ID)
+                            .withIssuer(issuer)
+                            .withSubject(UUID.randomUUID().toString())
+                            .withExpiresAt(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                            .sign(algorithm)
+            );
+        }
+        return tokens;
+    }
+
+    private ConfigurationDTO createConfiguration() {
+        final Set<QuestionDTO> questions = new HashSet<>();
+        for (int i = 0; i < questionCount; i++) {
+            questions.add(new QuestionDTO("question " + i, "answer " + i, Set.of("wrong answer " + i)));
+        }
+        return new ConfigurationDTO(questions);
+    }
+
+    private static KeyPair createKeyPair() throws Exception {
+        final KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    private static byte[] toUnsignedBytes(final BigInteger value) {
+        final byte[] bytes = value.toByteArray();
+        return bytes[0] == 0 ? Arrays.copyOfRange(bytes, 1, bytes.length) : bytes;
+    }
+}
@@ -0,0 +1,49 @@
+package de.unistuttgart.towerdefensebackend;
+
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This class configures the in-process caches of the service.
+ * Size, expiry and statistics recording of the caches are set with the spring.cache.* properties.
+ */
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfiguration {
+
+    public static final String CONFIGURATION_CACHE = "configurations";
+
+    /**
+     * Creates the caffeine cache manager.
+     * Evictions and puts are deferred until the surrounding transaction has committed, so a reader that loads after
+     * the eviction sees the committed state. Loads with {@link Cache#get(Object, java.util.concurrent.Callable)} are
+     * not deferred, a reader that loaded the state from before the commit would put it back into the cache after the
+     * eviction. {@link StaleLoadGuardingCache} evicts such a value again.
+     *
+     * @param cacheProperties the spring.cache.* properties
+     * @return the transaction aware cache manager
+     */
+    @Bean
+    public CacheManager cacheManager(final CacheProperties cacheProperties) {
+        final CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(
+                    final String name,
+                    final com.github.benmanes.caffeine.cache.Cache<Object, Object> cache
+            ) {
+                return new StaleLoadGuardingCache(super.adaptCaffeineCache(name, cache));
+            }
+        };
+        cacheManager.setCacheSpecification(cacheProperties.getCaffeine().getSpec());
+        cacheManager.setCacheNames(cacheProperties.getCacheNames());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
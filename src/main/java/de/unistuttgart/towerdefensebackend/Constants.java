@@ -17,6 +17,20 @@ public class Constants {
     public static final int MIN_QUESTION_COUNT = 0;
     public static final int MAX_QUESTION_COUNT = 600;
 
+    //maximal number of results that can be saved with one request
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    //maximal number of results that are returned in one page of the result history
+    public static final int MAX_HISTORY_PAGE_SIZE = 100;
+
+    //----Configuration attributes----
+
+    //maximal number of clones that can be created with one request
+    public static final int MAX_CLONE_COUNT = 100;
+
+    //number of configurations that are fetched at once by the database cursor of the export
+    public static final int EXPORT_FETCH_SIZE = 100;
+
     //----Overworld result attributes----
 
     //score saved in %
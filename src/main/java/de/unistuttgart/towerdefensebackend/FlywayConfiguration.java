@@ -0,0 +1,41 @@
+package de.unistuttgart.towerdefensebackend;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+
+/**
+ * This class configures the schema migrations in src/main/resources/db/migration.
+ * The tables of the entities are created and extended by Hibernate, the migrations add what Hibernate cannot
+ * express, e.g. partitioned tables and indexes that are built concurrently.
+ * That is why the migrations run after the entity manager factory has updated the schema instead of before it.
+ * Databases without schema history are baselined at version 0, so all migrations are applied to them.
+ */
+@Configuration
+public class FlywayConfiguration {
+
+    /**
+     * Skips the migration that Spring Boot runs before the entity manager factory is created.
+     *
+     * @return the strategy that does not migrate
+     */
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy() {
+        return flyway -> {};
+    }
+
+    /**
+     * Migrates the schema once the entity manager factory has updated it.
+     *
+     * @param flyway the flyway instance configured with the spring.flyway.* properties
+     * @return the bean that migrates the schema when it is initialized
+     */
+    @Bean
+    @DependsOn("entityManagerFactory")
+    public InitializingBean flywayMigration(final Flyway flyway) {
+        return flyway::migrate;
+    }
+}
@@ -0,0 +1,27 @@
+package de.unistuttgart.towerdefensebackend;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This class configures the metrics of the service that are not recorded by Spring Boot itself.
+ * Requests, Feign clients, repositories, caches and the connection pool are instrumented automatically,
+ * the services are timed with {@link io.micrometer.core.annotation.Timed}.
+ * All metrics are exposed for Prometheus at /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    /**
+     * Records the methods of the beans annotated with {@link io.micrometer.core.annotation.Timed}.
+     *
+     * @param meterRegistry the registry the timers are registered in
+     * @return the aspect
+     */
+    @Bean
+    public TimedAspect timedAspect(final MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
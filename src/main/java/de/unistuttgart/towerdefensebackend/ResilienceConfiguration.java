@@ -0,0 +1,134 @@
+package de.unistuttgart.towerdefensebackend;
+
+import de.unistuttgart.towerdefensebackend.clients.ResilienceCapability;
+import feign.Capability;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This class configures the circuit breakers and bulkheads that protect the calls to the overworld-backend.
+ * Every Feign client gets its own circuit breaker and bulkhead, named like the client.
+ * Their state, calls and rejections are exposed as metrics.
+ */
+@Configuration
+public class ResilienceConfiguration {
+
+    @Value("${overworld.resilience.failure-rate-threshold:50}")
+    private float failureRateThreshold;
+
+    @Value("${overworld.resilience.slow-call-duration-threshold:2s}")
+    private Duration slowCallDurationThreshold;
+
+    @Value("${overworld.resilience.sliding-window-size:20}")
+    private int slidingWindowSize;
+
+    @Value("${overworld.resilience.minimum-number-of-calls:10}")
+    private int minimumNumberOfCalls;
+
+    @Value("${overworld.resilience.wait-duration-in-open-state:30s}")
+    private Duration waitDurationInOpenState;
+
+    @Value("${overworld.resilience.permitted-calls-in-half-open-state:3}")
+    private int permittedCallsInHalfOpenState;
+
+    @Value("${overworld.resilience.max-concurrent-calls:20}")
+    private int maxConcurrentCalls;
+
+    /**
+     * Connection errors, timeouts, slow calls and server errors are recorded as failures.
+     * If the failure rate exceeds the threshold, the circuit breaker opens and calls fail fast until it is
+     * half-open again after the wait duration.
+     *
+     * @return the registry of the circuit breakers
+     */
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry() {
+        return CircuitBreakerRegistry.of(
+                CircuitBreakerConfig
+                        .custom()
+                        .failureRateThreshold(failureRateThreshold)
+                        .slowCallDurationThreshold(slowCallDurationThreshold)
+                        .slidingWindowSize(slidingWindowSize)
+                        .minimumNumberOfCalls(minimumNumberOfCalls)
+                        .waitDurationInOpenState(waitDurationInOpenState)
+                        .permittedNumberOfCallsInHalfOpenState(permittedCallsInHalfOpenState)
+                        .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                        .build()
+        );
+    }
+
+    /**
+     * Calls that exceed the maximum number of concurrent calls are rejected immediately instead of waiting,
+     * so a slow overworld-backend cannot occupy all request threads.
+     *
+     * @return the registry of the bulkheads
+     */
+    @Bean
+    public BulkheadRegistry bulkheadRegistry() {
+        return BulkheadRegistry.of(
+                BulkheadConfig.custom().maxConcurrentCalls(maxConcurrentCalls).maxWaitDuration(Duration.ZERO).build()
+        );
+    }
+
+    /**
+     * Wraps the HTTP client of every Feign client with its circuit breaker and bulkhead.
+     *
+     * @param circuitBreakerRegistry the registry of the circuit breakers
+     * @param bulkheadRegistry       the registry of the bulkheads
+     * @return the capability that is applied to all Feign clients
+     */
+    @Bean
+    public Capability resilienceCapability(
+            final CircuitBreakerRegistry circuitBreakerRegistry,
+            final BulkheadRegistry bulkheadRegistry
+    ) {
+        return new ResilienceCapability(circuitBreakerRegistry, bulkheadRegistry);
+    }
+
+    /**
+     * Registers the state and call metrics of the circuit breakers and bulkheads and counts the calls
+     * that were rejected by a bulkhead.
+     *
+     * @param circuitBreakerRegistry the registry of the circuit breakers
+     * @param bulkheadRegistry       the registry of the bulkheads
+     * @return the binder of the metrics
+     */
+    @Bean
+    public MeterBinder resilienceMetrics(
+            final CircuitBreakerRegistry circuitBreakerRegistry,
+            final BulkheadRegistry bulkheadRegistry
+    ) {
+        return meterRegistry -> {
+            TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+            TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+            bulkheadRegistry
+                    .getEventPublisher()
+                    .onEntryAdded(event -> {
+                        final String name = event.getAddedEntry().getName();
+                        final Counter rejections = rejectionCounter(meterRegistry, name);
+                        event.getAddedEntry().getEventPublisher().onCallRejected(rejected -> rejections.increment());
+                    });
+        };
+    }
+
+    private static Counter rejectionCounter(final MeterRegistry meterRegistry, final String name) {
+        return Counter
+                .builder("resilience4j.bulkhead.rejected.calls")
+                .description("calls that were rejected because the maximum number of concurrent calls was reached")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,105 @@
+package de.unistuttgart.towerdefensebackend;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.cache.Cache;
+
+/**
+ * Decorates a cache so that a value that was loaded while its key was evicted does not stay in the cache.
+ * <p>
+ * {@link #get(Object, Callable)} puts the loaded value into the cache right away. If the value was read before a
+ * concurrent change committed, the eviction of that change can happen before the stale value is put, unless the
+ * cache blocks evictions of a key while it is loaded, and the stale value would be kept until it expires.
+ * Every eviction therefore increases a generation, and a value whose load overlapped with an eviction of its key is
+ * evicted again after it was put.
+ * The generations are striped by the hash of the key, so an eviction of another key of the same stripe only causes
+ * an unnecessary reload.
+ */
+class StaleLoadGuardingCache implements Cache {
+
+    private static final int STRIPES = 64;
+
+    private final Cache target;
+
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+    StaleLoadGuardingCache(final Cache target) {
+        this.target = target;
+    }
+
+    @Override
+    public String getName() {
+        return target.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return target.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(final Object key) {
+        return target.get(key);
+    }
+
+    @Override
+    public <T> T get(final Object key, final Class<T> type) {
+        return target.get(key, type);
+    }
+
+    @Override
+    public <T> T get(final Object key, final Callable<T> valueLoader) {
+        final int stripe = stripe(key);
+        final long generation = generations.get(stripe);
+        final T value = target.get(key, valueLoader);
+        if (generations.get(stripe) != generation) {
+            target.evict(key);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(final Object key, final Object value) {
+        target.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(final Object key, final Object value) {
+        return target.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(final Object key) {
+        generations.incrementAndGet(stripe(key));
+        target.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(final Object key) {
+        generations.incrementAndGet(stripe(key));
+        return target.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        incrementAllGenerations();
+        target.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        incrementAllGenerations();
+        return target.invalidate();
+    }
+
+    private void incrementAllGenerations() {
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            generations.incrementAndGet(stripe);
+        }
+    }
+
+    private static int stripe(final Object key) {
+        return Math.floorMod(key.hashCode(), STRIPES);
+    }
+}
@@ -1,17 +1,29 @@
 package de.unistuttgart.towerdefensebackend;
 
+import de.unistuttgart.towerdefensebackend.controller.AccessTokenInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 @EnableWebMvc
 public class TowerDefenseServiceConfiguration implements WebMvcConfigurer{
 
+    @Autowired
+    private AccessTokenInterceptor accessTokenInterceptor;
+
     @Override
     public void addCorsMappings(final CorsRegistry registry) {
         // allow CORS requests for all resources and HTTP methods from the frontend origin
         registry.addMapping("/**").allowedMethods("OPTIONS", "HEAD", "GET", "PUT", "POST", "DELETE");
     }
+
+    @Override
+    public void addInterceptors(final InterceptorRegistry registry) {
+        // verify the access token once per request instead of in every controller method
+        registry.addInterceptor(accessTokenInterceptor).addPathPatterns("/configurations/**", "/results/**");
+    }
 }
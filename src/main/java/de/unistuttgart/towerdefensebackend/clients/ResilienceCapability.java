@@ -0,0 +1,28 @@
+package de.unistuttgart.towerdefensebackend.clients;
+
+import feign.Capability;
+import feign.Client;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+
+/**
+ * This capability wraps the HTTP client of every Feign client with a {@link ResilientClient}.
+ */
+public class ResilienceCapability implements Capability {
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+
+    public ResilienceCapability(
+            final CircuitBreakerRegistry circuitBreakerRegistry,
+            final BulkheadRegistry bulkheadRegistry
+    ) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+    }
+
+    @Override
+    public Client enrich(final Client client) {
+        return new ResilientClient(client, circuitBreakerRegistry, bulkheadRegistry);
+    }
+}
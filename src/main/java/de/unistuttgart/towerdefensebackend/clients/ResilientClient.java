@@ -0,0 +1,71 @@
+package de.unistuttgart.towerdefensebackend.clients;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This client wraps the pooled HTTP client of the Feign clients with a circuit breaker and a bulkhead.
+ * Both are looked up by the name of the Feign client, so every client is protected independently.
+ * <p>
+ * Connection errors, timeouts and server errors count as failures of the circuit breaker, client errors do not.
+ * If the circuit breaker is open, a {@link io.github.resilience4j.circuitbreaker.CallNotPermittedException}
+ * is thrown, if all permitted concurrent calls are in use, a {@link BulkheadFullException} is thrown.
+ * In both cases no request is sent.
+ */
+public class ResilientClient implements Client {
+
+    private final Client delegate;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+
+    public ResilientClient(
+            final Client delegate,
+            final CircuitBreakerRegistry circuitBreakerRegistry,
+            final BulkheadRegistry bulkheadRegistry
+    ) {
+        this.delegate = delegate;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+    }
+
+    @Override
+    public Response execute(final Request request, final Request.Options options) throws IOException {
+        final String name = request.requestTemplate().feignTarget().name();
+        final CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(name);
+        final Bulkhead bulkhead = bulkheadRegistry.bulkhead(name);
+        circuitBreaker.acquirePermission();
+        if (!bulkhead.tryAcquirePermission()) {
+            circuitBreaker.releasePermission();
+            throw BulkheadFullException.createBulkheadFullException(bulkhead);
+        }
+        final long start = System.nanoTime();
+        try {
+            final Response response = delegate.execute(request, options);
+            final long duration = System.nanoTime() - start;
+            if (response.status() >= 500) {
+                circuitBreaker.onError(
+                        duration,
+                        TimeUnit.NANOSECONDS,
+                        new IOException(String.format("%s responded with status %d", name, response.status()))
+                );
+            } else {
+                circuitBreaker.onSuccess(duration, TimeUnit.NANOSECONDS);
+            }
+            return response;
+        } catch (final IOException | RuntimeException exception) {
+            circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, exception);
+            throw exception;
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+}
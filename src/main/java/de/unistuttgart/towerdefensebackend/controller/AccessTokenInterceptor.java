@@ -0,0 +1,55 @@
+package de.unistuttgart.towerdefensebackend.controller;
+
+import de.unistuttgart.towerdefensebackend.service.VerifiedTokenCache;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * This interceptor verifies the access token of every request to a controller before the controller is called.
+ * The id of the user is stored in the request attribute {@link #USER_ID}.
+ * Requests without access token are passed on, the controllers reject them as the cookie is required.
+ */
+@Component
+public class AccessTokenInterceptor implements HandlerInterceptor {
+
+    public static final String ACCESS_TOKEN_COOKIE = "access_token";
+    public static final String USER_ID = "userId";
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    /**
+     * @throws ResponseStatusException (401) if the access token is invalid or expired
+     */
+    @Override
+    public boolean preHandle(
+            final HttpServletRequest request,
+            final HttpServletResponse response,
+            final Object handler
+    ) {
+        final String accessToken = getAccessToken(request);
+        if (accessToken != null) {
+            request.setAttribute(USER_ID, verifiedTokenCache.verify(accessToken).userId());
+        }
+        return true;
+    }
+
+    private String getAccessToken(final HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return null;
+        }
+        for (final Cookie cookie : request.getCookies()) {
+            if (ACCESS_TOKEN_COOKIE.equals(cookie.getName())) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+}
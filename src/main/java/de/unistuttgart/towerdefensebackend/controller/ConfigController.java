@@ -5,19 +5,34 @@ import de.unistuttgart.towerdefensebackend.data.QuestionDTO;
 import de.unistuttgart.towerdefensebackend.data.mapper.ConfigurationMapper;
 import de.unistuttgart.towerdefensebackend.repositories.ConfigurationRepository;
 import de.unistuttgart.towerdefensebackend.service.ConfigService;
+import de.unistuttgart.towerdefensebackend.service.ConfigurationImportService;
+import de.unistuttgart.towerdefensebackend.service.ConfigurationSnapshotStore;
+import de.unistuttgart.towerdefensebackend.service.ConfigurationSnapshotStore.Snapshot;
+import de.unistuttgart.towerdefensebackend.service.ConfigurationStreamingService;
+import de.unistuttgart.towerdefensebackend.service.QuestionImportService;
 import de.unistuttgart.gamifyit.authentificationvalidator.JWTValidatorService;
 import io.swagger.v3.oas.annotations.Operation;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * This controller handles all game-configuration-related REST-APIs
@@ -30,6 +45,12 @@ import org.springframework.web.bind.annotation.*;
 public class ConfigController {
 
     public static final List<String> LECTURER = List.of("lecturer");
+
+    /**
+     * Configurations may be stored by the clients, but have to be revalidated with their ETag before every use.
+     */
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
     @Autowired
     private ConfigurationRepository configurationRepository;
 
@@ -42,34 +63,138 @@ public class ConfigController {
     @Autowired
     private ConfigurationMapper configurationMapper;
 
+    @Autowired
+    private ConfigurationStreamingService configurationStreamingService;
+
+    @Autowired
+    private QuestionImportService questionImportService;
+
+    @Autowired
+    private ConfigurationImportService configurationImportService;
+
+    @Autowired
+    private ConfigurationSnapshotStore configurationSnapshotStore;
+
     @Operation(summary = "Get all configurations")
     @GetMapping("")
     public List<ConfigurationDTO> getConfigurations(@CookieValue("access_token") final String accessToken) {
-        jwtValidatorService.validateTokenOrThrow(accessToken);
         log.debug("get all configurations");
         return configurationMapper.configurationsToConfigurationDTOs(configurationRepository.findAll());
     }
 
-    @GetMapping("/{id}")
-    public ConfigurationDTO getConfiguration(
+    @Operation(summary = "Get a page of configurations ordered by id, as summaries or with their questions")
+    @GetMapping(value = "", params = "limit")
+    public ResponseEntity<StreamingResponseBody> getConfigurationPage(
             @CookieValue("access_token") final String accessToken,
-            @PathVariable final UUID id
+            @RequestParam(required = false) final UUID after,
+            @RequestParam final int limit,
+            @RequestParam(defaultValue = "false") final boolean full
     ) {
-        jwtValidatorService.validateTokenOrThrow(accessToken);
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be positive");
+        }
+        log.debug("get {} configurations after {}", limit, after);
+        return ResponseEntity
+                .ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(outputStream ->
+                        configurationStreamingService.writeConfigurationPage(outputStream, after, limit, full)
+                );
+    }
+
+    @Operation(summary = "Export all configurations with their questions as NDJSON")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportConfigurations(
+            @CookieValue("access_token") final String accessToken
+    ) {
+        jwtValidatorService.hasRolesOrThrow(accessToken, LECTURER);
+        log.debug("export all configurations");
+        return ResponseEntity
+                .ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(configurationStreamingService::writeAllConfigurations);
+    }
+
+    @Operation(summary = "Import configurations exported as NDJSON, the outcome of each line is returned as NDJSON")
+    @PostMapping(
+            value = "/import",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    public void importConfigurations(
+            @CookieValue("access_token") final String accessToken,
+            final HttpServletRequest request,
+            final HttpServletResponse response
+    ) throws IOException {
+        jwtValidatorService.hasRolesOrThrow(accessToken, LECTURER);
+        log.debug("import configurations");
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        configurationImportService.importConfigurations(request.getInputStream(), response.getOutputStream());
+    }
+
+    @Operation(summary = "Get a configuration, answered with 304 if the ETag in If-None-Match is still current")
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public void getConfiguration(
+            @CookieValue("access_token") final String accessToken,
+            @PathVariable final UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) final String acceptEncoding,
+            final HttpServletResponse response
+    ) throws IOException {
         log.debug("get configuration {}", id);
-        return configurationMapper.configurationToConfigurationDTO(configService.getConfiguration(id));
+        final long version = configService.getConfigurationVersion(id);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL.getHeaderValue());
+        if (ifNoneMatch != null && matchesETag(ifNoneMatch, configurationETag(version))) {
+            response.setHeader(HttpHeaders.ETAG, configurationETag(version));
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+        final Snapshot snapshot = configurationSnapshotStore.getSnapshot(id, version);
+        final boolean compressed = snapshot.gzipped() && acceptsGzip(acceptEncoding);
+        response.setHeader(HttpHeaders.ETAG, configurationETag(snapshot.version()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        if (snapshot.gzipped()) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (compressed) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            response.setContentLength(snapshot.length());
+        }
+        snapshot.writeTo(response.getOutputStream(), !compressed);
     }
 
+    @Operation(
+            summary = "Get a configuration with the volume level of the player, answered with 304 if the ETag in " +
+            "If-None-Match is still current"
+    )
     @GetMapping("/{id}/volume")
-    public ConfigurationDTO getAllConfiguration(
+    public ResponseEntity<ConfigurationDTO> getAllConfiguration(
             @CookieValue("access_token") final String accessToken,
-            @PathVariable final UUID id
+            @RequestAttribute(AccessTokenInterceptor.USER_ID) final String userId,
+            @PathVariable final UUID id,
+            @RequestParam(defaultValue = "false") final boolean refreshVolumeLevel,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch
     ) {
-        jwtValidatorService.validateTokenOrThrow(accessToken);
         log.debug("get configuration {}", id);
-        return configurationMapper.configurationToConfigurationDTO(
-                configService.getAllConfigurations(id, accessToken)
+        // the volume level is retrieved while the version or the configuration is looked up
+        final CompletableFuture<Integer> volumeLevel = configService.getVolumeLevel(
+                userId,
+                accessToken,
+                refreshVolumeLevel
         );
+        if (ifNoneMatch != null) {
+            final long version = configService.getConfigurationVersion(id);
+            final String eTag = volumeETag(version, volumeLevel.join());
+            if (matchesETag(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(CACHE_CONTROL).build();
+            }
+        }
+        final ConfigurationDTO configuration = configService.getAllConfigurations(id, volumeLevel);
+        return ResponseEntity
+                .ok()
+                .eTag(volumeETag(configuration.getVersion(), configuration.getVolumeLevel()))
+                .cacheControl(CACHE_CONTROL)
+                .body(configuration);
     }
 
     @Operation(summary = "Create a new configuration")
@@ -79,7 +204,6 @@ public class ConfigController {
             @CookieValue("access_token") final String accessToken,
             @Valid @RequestBody final ConfigurationDTO configurationDTO
     ) {
-        jwtValidatorService.validateTokenOrThrow(accessToken);
         jwtValidatorService.hasRolesOrThrow(accessToken, LECTURER);
         log.debug("create configuration {}", configurationDTO);
         return configService.saveConfiguration(configurationDTO);
@@ -92,7 +216,6 @@ public class ConfigController {
             @PathVariable final UUID id,
             @Valid @RequestBody final ConfigurationDTO configurationDTO
     ) {
-        jwtValidatorService.validateTokenOrThrow(accessToken);
         jwtValidatorService.hasRolesOrThrow(accessToken, LECTURER);
         log.debug("update configuration {} with {}", id, configurationDTO);
         return configService.updateConfiguration(id, configurationDTO);
@@ -104,7 +227,6 @@ public class ConfigController {
             @CookieValue("access_token") final String accessToken,
             @PathVariable final UUID id
     ) {
-        jwtValidatorService.validateTokenOrThrow(accessToken);
         jwtValidatorService.hasRolesOrThrow(accessToken, LECTURER);
         log.debug("delete configuration {}", id);
         return configService.deleteConfiguration(id);
@@ -118,7 +240,6 @@ public class ConfigController {
             @PathVariable final UUID id,
             @Valid @RequestBody final QuestionDTO questionDTO
     ) {
-        jwtValidatorService.validateTokenOrThrow(accessToken);
         jwtValidatorService.hasRolesOrThrow(accessToken, LECTURER);
         log.debug("add question {} to configuration {}", questionDTO, id);
         return configService.addQuestionToConfiguration(id, questionDTO);
@@ -131,12 +252,34 @@ public class ConfigController {
             @PathVariable final UUID id,
             @PathVariable final UUID questionId
     ) {
-        jwtValidatorService.validateTokenOrThrow(accessToken);
         jwtValidatorService.hasRolesOrThrow(accessToken, LECTURER);
         log.debug("remove question {} from configuration {}", questionId, id);
         return configService.removeQuestionFromConfiguration(id, questionId);
     }
 
+    @Operation(summary = "Import questions from NDJSON or CSV, the outcome of each row is returned as NDJSON")
+    @PostMapping(
+            value = "/{id}/questions/import",
+            consumes = { MediaType.APPLICATION_NDJSON_VALUE, QuestionImportService.TEXT_CSV_VALUE },
+            produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    public void importQuestions(
+            @CookieValue("access_token") final String accessToken,
+            @PathVariable final UUID id,
+            final HttpServletRequest request,
+            final HttpServletResponse response
+    ) throws IOException {
+        jwtValidatorService.hasRolesOrThrow(accessToken, LECTURER);
+        log.debug("import questions into configuration {}", id);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        questionImportService.importQuestions(
+                id,
+                MediaType.parseMediaType(request.getContentType()),
+                request.getInputStream(),
+                response.getOutputStream()
+        );
+    }
+
     @Operation(summary = "Update a question in a configuration")
     @PutMapping("/{id}/questions/{questionId}")
     public QuestionDTO updateQuestionFromConfiguration(
@@ -145,7 +288,6 @@ public class ConfigController {
             @PathVariable final UUID questionId,
             @Valid @RequestBody final QuestionDTO questionDTO
     ) {
-        jwtValidatorService.validateTokenOrThrow(accessToken);
         jwtValidatorService.hasRolesOrThrow(accessToken, LECTURER);
         log.debug("update question {} with {} for configuration {}", questionId, questionDTO, id);
         return configService.updateQuestionFromConfiguration(id, questionId, questionDTO);
@@ -154,8 +296,68 @@ public class ConfigController {
     @PostMapping("/{id}/clone")
     @ResponseStatus(HttpStatus.CREATED)
     public UUID cloneConfiguration(@CookieValue("access_token") final String accessToken, @PathVariable final UUID id) {
-        jwtValidatorService.validateTokenOrThrow(accessToken);
         jwtValidatorService.hasRolesOrThrow(accessToken, LECTURER);
         return configService.cloneConfiguration(id);
     }
+
+    @Operation(summary = "Clone a configuration multiple times, e.g. once for every course group")
+    @PostMapping("/{id}/clones")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<UUID> cloneConfigurations(
+            @CookieValue("access_token") final String accessToken,
+            @PathVariable final UUID id,
+            @RequestParam final int count
+    ) {
+        jwtValidatorService.hasRolesOrThrow(accessToken, LECTURER);
+        log.debug("clone configuration {} {} times", id, count);
+        return configService.cloneConfiguration(id, count);
+    }
+
+    private static String configurationETag(final long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * The volume level is part of the ETag, because it is part of the response but does not change the version.
+     */
+    private static String volumeETag(final long version, final int volumeLevel) {
+        return "\"" + version + "-" + volumeLevel + "\"";
+    }
+
+    /**
+     * Compares the ETags of an If-None-Match header with the current ETag, using the weak comparison.
+     *
+     * @param ifNoneMatch the value of the If-None-Match header
+     * @param eTag        the current ETag
+     * @return whether the client already has the current representation
+     */
+    private static boolean matchesETag(final String ifNoneMatch, final String eTag) {
+        for (final String candidate : ifNoneMatch.split(",")) {
+            final String trimmed = candidate.strip();
+            if (trimmed.equals("*") || trimmed.equals(eTag) || trimmed.equals("W/" + eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the Accept-Encoding header allows gzip, i.e. it lists gzip or * without a quality of 0.
+     *
+     * @param acceptEncoding the value of the Accept-Encoding header, null if there is none
+     * @return whether the response may be gzip compressed
+     */
+    private static boolean acceptsGzip(final String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (final String candidate : acceptEncoding.split(",")) {
+            final String[] parts = candidate.split(";");
+            final String coding = parts[0].strip();
+            if (coding.equalsIgnoreCase("gzip") || coding.equals("*")) {
+                return parts.length < 2 || !parts[1].strip().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
 }
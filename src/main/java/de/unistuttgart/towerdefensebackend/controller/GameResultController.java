@@ -1,13 +1,16 @@
 package de.unistuttgart.towerdefensebackend.controller;
 
+import de.unistuttgart.towerdefensebackend.data.BatchItemResultDTO;
 import de.unistuttgart.towerdefensebackend.data.GameResultDTO;
+import de.unistuttgart.towerdefensebackend.data.GameResultSummaryDTO;
 import de.unistuttgart.towerdefensebackend.service.GameResultService;
 import de.unistuttgart.gamifyit.authentificationvalidator.JWTValidatorService;
 import io.swagger.v3.oas.annotations.Operation;
+import java.util.List;
+import java.util.UUID;
 import javax.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -17,7 +20,6 @@ import org.springframework.web.bind.annotation.*;
  */
 @RestController
 @RequestMapping("/results")
-@Import({ JWTValidatorService.class })
 @Slf4j
 @Validated
 public class GameResultController {
@@ -28,17 +30,48 @@ public class GameResultController {
     @Autowired
     private JWTValidatorService jwtValidatorService;
 
+    @Operation(
+            summary = "Get a page of the game results of a player and/or a configuration, newest first. " +
+            "The next page starts before the last result of the previous page. " +
+            "Only lecturers may get the results of other players."
+    )
+    @GetMapping("")
+    public List<GameResultSummaryDTO> getGameResults(
+            @CookieValue("access_token") final String accessToken,
+            @RequestAttribute(AccessTokenInterceptor.USER_ID) final String userId,
+            @RequestParam(required = false) final String playerId,
+            @RequestParam(required = false) final UUID configurationId,
+            @RequestParam(required = false) final UUID before,
+            @RequestParam(defaultValue = "20") final int limit
+    ) {
+        if (!userId.equals(playerId)) {
+            jwtValidatorService.hasRolesOrThrow(accessToken, ConfigController.LECTURER);
+        }
+        log.debug("get {} game results of player {} and configuration {}", limit, playerId, configurationId);
+        return gameResultService.getGameResultHistory(playerId, configurationId, before, limit);
+    }
+
     @Operation(summary = "Save a game result")
     @PostMapping("")
     @ResponseStatus(HttpStatus.CREATED)
     public GameResultDTO saveGameResult(
             @CookieValue("access_token") final String accessToken,
+            @RequestAttribute(AccessTokenInterceptor.USER_ID) final String userId,
             @Valid @RequestBody final GameResultDTO gameResultDTO
     ) {
-        jwtValidatorService.validateTokenOrThrow(accessToken);
-        final String userId = jwtValidatorService.extractUserId(accessToken);
         log.debug("save game result for userId {}: {}", userId, gameResultDTO);
         gameResultService.saveGameResult(gameResultDTO, userId, accessToken);
         return gameResultDTO;
     }
+
+    @Operation(summary = "Save many game results at once, reporting the outcome of each result")
+    @PostMapping("/batch")
+    public List<BatchItemResultDTO<GameResultDTO>> saveGameResults(
+            @CookieValue("access_token") final String accessToken,
+            @RequestAttribute(AccessTokenInterceptor.USER_ID) final String userId,
+            @RequestBody final List<GameResultDTO> gameResultDTOs
+    ) {
+        log.debug("save {} game results for userId {}", gameResultDTOs.size(), userId);
+        return gameResultService.saveGameResults(gameResultDTOs, userId, accessToken);
+    }
 }
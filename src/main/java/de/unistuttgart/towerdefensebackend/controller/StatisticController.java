@@ -0,0 +1,82 @@
+package de.unistuttgart.towerdefensebackend.controller;
+
+import de.unistuttgart.towerdefensebackend.data.ConfigurationStatisticDTO;
+import de.unistuttgart.towerdefensebackend.data.LeaderboardEntryDTO;
+import de.unistuttgart.towerdefensebackend.data.QuestionStatisticDTO;
+import de.unistuttgart.towerdefensebackend.repositories.ConfigurationRepository;
+import de.unistuttgart.towerdefensebackend.service.ConfigurationStatisticService;
+import de.unistuttgart.towerdefensebackend.service.LeaderboardService;
+import de.unistuttgart.gamifyit.authentificationvalidator.JWTValidatorService;
+import io.swagger.v3.oas.annotations.Operation;
+
+import java.util.List;
+import java.util.UUID;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * This controller handles the statistic- and leaderboard-related REST-APIs of the configurations
+ */
+@RestController
+@RequestMapping("/configurations")
+@Import({JWTValidatorService.class})
+@Slf4j
+@Validated
+public class StatisticController {
+
+    @Autowired
+    private ConfigurationRepository configurationRepository;
+
+    @Autowired
+    private ConfigurationStatisticService configurationStatisticService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private JWTValidatorService jwtValidatorService;
+
+    @Operation(summary = "Get the aggregated game results of a configuration")
+    @GetMapping("/{id}/statistics")
+    public ConfigurationStatisticDTO getStatistic(
+            @CookieValue("access_token") final String accessToken,
+            @PathVariable final UUID id
+    ) {
+        jwtValidatorService.hasRolesOrThrow(accessToken, ConfigController.LECTURER);
+        log.debug("get statistic of configuration {}", id);
+        if (!configurationRepository.existsById(id)) {
+            throw new ResponseStatusException(
+                    HttpStatus.NOT_FOUND,
+                    String.format("There is no configuration with id %s.", id)
+            );
+        }
+        return configurationStatisticService.getStatistic(id);
+    }
+
+    @Operation(summary = "Get how often the questions of a configuration were answered correctly and incorrectly")
+    @GetMapping("/{id}/questions/statistics")
+    public List<QuestionStatisticDTO> getQuestionStatistics(
+            @CookieValue("access_token") final String accessToken,
+            @PathVariable final UUID id
+    ) {
+        jwtValidatorService.hasRolesOrThrow(accessToken, ConfigController.LECTURER);
+        log.debug("get question statistics of configuration {}", id);
+        return configurationStatisticService.getQuestionStatistics(id);
+    }
+
+    @Operation(summary = "Get the best game results of a configuration")
+    @GetMapping("/{id}/leaderboard")
+    public List<LeaderboardEntryDTO> getLeaderboard(
+            @CookieValue("access_token") final String accessToken,
+            @PathVariable final UUID id
+    ) {
+        log.debug("get leaderboard of configuration {}", id);
+        return leaderboardService.getLeaderboard(id);
+    }
+}
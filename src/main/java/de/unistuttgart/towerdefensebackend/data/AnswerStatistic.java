@@ -0,0 +1,60 @@
+package de.unistuttgart.towerdefensebackend.data;
+
+import java.io.Serializable;
+import java.util.UUID;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * The AnswerStatistic class counts how often an answer was chosen for a question.
+ */
+@Entity
+@IdClass(AnswerStatistic.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class AnswerStatistic {
+
+    /**
+     * UUID of the question.
+     */
+    @Id
+    UUID questionId;
+
+    /**
+     * The chosen answer.
+     */
+    @Id
+    String answer;
+
+    /**
+     * The number of times the answer was chosen.
+     */
+    long chosenCount;
+
+    /**
+     * The primary key of an answer statistic.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Key implements Serializable, Comparable<Key> {
+
+        UUID questionId;
+        String answer;
+
+        @Override
+        public int compareTo(final Key other) {
+            final int comparison = questionId.compareTo(other.questionId);
+            return comparison != 0 ? comparison : answer.compareTo(other.answer);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package de.unistuttgart.towerdefensebackend.data;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * The AnswerStatisticDTO class contains how often an answer was chosen for a question.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class AnswerStatisticDTO {
+
+    /**
+     * The chosen answer.
+     */
+    String answer;
+
+    /**
+     * The number of times the answer was chosen.
+     */
+    long chosenCount;
+}
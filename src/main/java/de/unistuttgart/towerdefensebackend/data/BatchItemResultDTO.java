@@ -0,0 +1,40 @@
+package de.unistuttgart.towerdefensebackend.data;
+
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * The BatchItemResultDTO class contains the outcome of a single item of a batch request.
+ *
+ * @param <T> the type of the processed item
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BatchItemResultDTO<T> {
+
+    /**
+     * The position of the item in the request, starting with 0.
+     */
+    int index;
+
+    /**
+     * The HTTP status code that describes the outcome for the item.
+     */
+    int status;
+
+    /**
+     * The reasons why the item was rejected, empty if it was processed.
+     */
+    List<String> errors;
+
+    /**
+     * The processed item.
+     */
+    T item;
+}
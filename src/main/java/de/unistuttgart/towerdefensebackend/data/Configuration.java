@@ -1,6 +1,7 @@
 package de.unistuttgart.towerdefensebackend.data;
 
 import de.unistuttgart.towerdefensebackend.Constants;
+import java.time.LocalDateTime;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -11,18 +12,26 @@ import lombok.AccessLevel;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.validation.annotation.Validated;
 
 /**
  * The Configuration class contains all data that has to be stored to configure a tower defense game.
  */
 @Entity
+@NamedEntityGraph(name = Configuration.WITH_QUESTIONS, attributeNodes = @NamedAttributeNode("questions"))
 @Data
 @NoArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @Validated
 public class Configuration {
 
+    /**
+     * Name of the entity graph that loads a configuration with its questions in one query.
+     * The wrong answers of the questions are loaded in batches afterwards.
+     */
+    public static final String WITH_QUESTIONS = "Configuration.withQuestions";
+
     /**
      * A unique identifier for the configuration.
      */
@@ -33,7 +42,8 @@ public class Configuration {
     /**
      * The questions that are part of the configuration.
      */
-    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     @Valid
     Set<Question> questions;
 
@@ -42,10 +52,37 @@ public class Configuration {
      */
     Integer volumeLevel;
 
+    /**
+     * The date and time of the last change of the configuration or one of its questions.
+     */
+    LocalDateTime lastModified;
+
+    /**
+     * The version of the configuration, increased by every change of the configuration or one of its questions.
+     * It is used as ETag of the configuration. Hibernate increases it in the UPDATE statement and checks it against
+     * the loaded version, so concurrent changes cannot commit the same version.
+     */
+    @Version
+    @Column(columnDefinition = "bigint not null default 0")
+    long version;
+
     public Configuration(final Set<Question> questions) {
         this.questions = questions;
     }
 
+    @PrePersist
+    void initLastModified() {
+        this.lastModified = LocalDateTime.now();
+    }
+
+    /**
+     * Marks the configuration as changed, has to be called by every change of the configuration or its questions.
+     * The version is increased when the change is flushed.
+     */
+    public void markModified() {
+        this.lastModified = LocalDateTime.now();
+    }
+
     /**
      * Add a question to the configuration.
      * @param question the question to add
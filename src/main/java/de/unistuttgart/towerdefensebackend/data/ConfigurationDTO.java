@@ -1,6 +1,8 @@
 package de.unistuttgart.towerdefensebackend.data;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import de.unistuttgart.towerdefensebackend.Constants;
+import java.util.LinkedHashSet;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
@@ -41,10 +43,31 @@ public class ConfigurationDTO {
      */
     Integer volumeLevel;
 
+    /**
+     * The version of the configuration the DTO was created from.
+     * It is not part of the JSON representation but sent as ETag.
+     */
+    @JsonIgnore
+    Long version;
+
     public ConfigurationDTO(final Set<QuestionDTO> questions) {
         this.questions = questions;
     }
 
+    /**
+     * @return a copy of the configuration and its questions that can be changed without changing this one
+     */
+    public ConfigurationDTO copy() {
+        Set<QuestionDTO> questionsCopy = null;
+        if (questions != null) {
+            questionsCopy = new LinkedHashSet<>();
+            for (final QuestionDTO question : questions) {
+                questionsCopy.add(question.copy());
+            }
+        }
+        return new ConfigurationDTO(id, questionsCopy, volumeLevel, version);
+    }
+
     public boolean equalsContent(final ConfigurationDTO other) {
         if (this == other) return true;
         if (other == null) return false;
@@ -0,0 +1,50 @@
+package de.unistuttgart.towerdefensebackend.data;
+
+import java.io.Serializable;
+import java.util.UUID;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * The ConfigurationPlayer class records that a player has played a configuration at least once.
+ * It is used to count the distinct players of a configuration incrementally.
+ */
+@Entity
+@IdClass(ConfigurationPlayer.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ConfigurationPlayer {
+
+    /**
+     * UUID of the configuration.
+     */
+    @Id
+    UUID configurationId;
+
+    /**
+     * ID of the player.
+     */
+    @Id
+    String playerId;
+
+    /**
+     * The primary key of a configuration player.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Key implements Serializable {
+
+        UUID configurationId;
+        String playerId;
+    }
+}
@@ -0,0 +1,76 @@
+package de.unistuttgart.towerdefensebackend.data;
+
+import java.io.Serializable;
+import java.util.UUID;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * The ConfigurationResultRollup class contains additive counters over the game results of a configuration.
+ * The counters of a configuration are spread over several stripes, so concurrent game results of the same configuration
+ * usually update different rows. The statistics of a configuration are the sums over its stripes.
+ */
+@Entity
+@IdClass(ConfigurationResultRollup.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ConfigurationResultRollup {
+
+    /**
+     * UUID of the configuration.
+     */
+    @Id
+    UUID configurationId;
+
+    /**
+     * The stripe of the counters.
+     */
+    @Id
+    int stripe;
+
+    /**
+     * The number of games played.
+     */
+    long plays;
+
+    /**
+     * The sum of the scores of the games.
+     */
+    long scoreSum;
+
+    /**
+     * The sum of the correctly answered questions of the games.
+     */
+    long correctAnswerSum;
+
+    /**
+     * The sum of the incorrectly answered questions of the games.
+     */
+    long wrongAnswerSum;
+
+    /**
+     * The number of players that played the configuration for the first time.
+     */
+    long distinctPlayers;
+
+    /**
+     * The primary key of a rollup.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Key implements Serializable {
+
+        UUID configurationId;
+        int stripe;
+    }
+}
@@ -0,0 +1,48 @@
+package de.unistuttgart.towerdefensebackend.data;
+
+import java.util.UUID;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * The ConfigurationStatisticDTO class contains the aggregated game results of a configuration.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ConfigurationStatisticDTO {
+
+    /**
+     * UUID of the configuration.
+     */
+    UUID configurationId;
+
+    /**
+     * The number of games played.
+     */
+    long plays;
+
+    /**
+     * The average score of the games in per cent.
+     */
+    double averageScore;
+
+    /**
+     * The average number of correctly answered questions per game.
+     */
+    double averageCorrectAnswers;
+
+    /**
+     * The average number of incorrectly answered questions per game.
+     */
+    double averageWrongAnswers;
+
+    /**
+     * The number of different players that played the configuration.
+     */
+    long distinctPlayers;
+}
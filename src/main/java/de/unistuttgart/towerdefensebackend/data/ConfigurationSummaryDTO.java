@@ -0,0 +1,34 @@
+package de.unistuttgart.towerdefensebackend.data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * The ConfigurationSummaryDTO class contains the overview data of a configuration without its questions.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ConfigurationSummaryDTO {
+
+    /**
+     * A unique identifier for the configuration.
+     */
+    UUID id;
+
+    /**
+     * The number of questions that are part of the configuration.
+     */
+    int questionCount;
+
+    /**
+     * The date and time of the last change of the configuration.
+     */
+    LocalDateTime lastModified;
+}
@@ -19,6 +19,7 @@ import org.springframework.validation.annotation.Validated;
  * The GameResult class contains all data that is saved after one tower defense game.
  */
 @Entity
+@Table(indexes = @Index(columnList = "playedTime"))
 @Data
 @NoArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
@@ -0,0 +1,29 @@
+package de.unistuttgart.towerdefensebackend.data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projection of the game results in the result history, saved or archived, without their answered questions.
+ */
+public interface GameResultSummary {
+    UUID getId();
+
+    UUID getConfigurationId();
+
+    String getPlayerId();
+
+    LocalDateTime getPlayedTime();
+
+    int getQuestionCount();
+
+    int getCorrectAnswerCount();
+
+    int getWrongAnswerCount();
+
+    int getPoints();
+
+    long getScore();
+
+    int getRewards();
+}
@@ -0,0 +1,78 @@
+package de.unistuttgart.towerdefensebackend.data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * The GameResultSummaryDTO class contains the overview data of a game result without its answered questions.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class GameResultSummaryDTO {
+
+    /**
+     * A unique identifier for the game result.
+     */
+    UUID id;
+
+    /**
+     * UUID of the configuration that was used for this game.
+     */
+    UUID configurationId;
+
+    /**
+     * ID of the player that played this game.
+     */
+    String playerId;
+
+    /**
+     * The date and time when the game was finished.
+     */
+    LocalDateTime playedTime;
+
+    /**
+     * The total number of questions that were available.
+     */
+    int questionCount;
+
+    /**
+     * The number of questions that were answered correctly.
+     */
+    int correctAnswerCount;
+
+    /**
+     * The number of questions that were answered incorrectly.
+     */
+    int wrongAnswerCount;
+
+    /**
+     * Points earned.
+     */
+    int points;
+
+    long score;
+
+    int rewards;
+
+    public GameResultSummaryDTO(final GameResultSummary summary) {
+        this(
+                summary.getId(),
+                summary.getConfigurationId(),
+                summary.getPlayerId(),
+                summary.getPlayedTime(),
+                summary.getQuestionCount(),
+                summary.getCorrectAnswerCount(),
+                summary.getWrongAnswerCount(),
+                summary.getPoints(),
+                summary.getScore(),
+                summary.getRewards()
+        );
+    }
+}
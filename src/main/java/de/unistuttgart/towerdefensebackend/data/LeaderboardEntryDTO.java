@@ -0,0 +1,48 @@
+package de.unistuttgart.towerdefensebackend.data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * The LeaderboardEntryDTO class contains a game result on the leaderboard of a configuration.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class LeaderboardEntryDTO {
+
+    /**
+     * UUID of the game result.
+     */
+    UUID gameResultId;
+
+    /**
+     * ID of the player.
+     */
+    String playerId;
+
+    /**
+     * Points earned.
+     */
+    int points;
+
+    /**
+     * The score in per cent.
+     */
+    long score;
+
+    /**
+     * The time the game was played.
+     */
+    LocalDateTime playedTime;
+
+    public LeaderboardEntryDTO(final GameResult result) {
+        this(result.getId(), result.getPlayerId(), result.getPoints(), result.getScore(), result.getPlayedTime());
+    }
+}
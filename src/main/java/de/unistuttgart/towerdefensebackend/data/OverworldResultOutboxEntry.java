@@ -0,0 +1,121 @@
+package de.unistuttgart.towerdefensebackend.data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * The OverworldResultOutboxEntry class contains an OverworldResultDTO that still has to be sent to the overworld-backend.
+ * It is committed in the same transaction as the game result and delivered asynchronously afterwards.
+ * The access token of the player is stored with the entry because the overworld-backend expects it with the result,
+ * entries that cannot be delivered before the token expires end up as failed.
+ */
+@Entity
+@Table(indexes = @Index(columnList = "status, nextAttemptAt"))
+@Data
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Validated
+public class OverworldResultOutboxEntry {
+
+    /**
+     * The delivery states of an outbox entry.
+     */
+    public enum Status {
+        PENDING,
+        DELIVERED,
+        FAILED,
+    }
+
+    /**
+     * A unique identifier for the outbox entry.
+     */
+    @Id
+    @GeneratedValue(generator = "uuid")
+    UUID id;
+
+    /**
+     * The name of the minigame.
+     */
+    @NotNull(message = "game cannot be null")
+    String game;
+
+    /**
+     * A unique identifier for the game configuration used for the game.
+     */
+    @NotNull(message = "configurationId cannot be null")
+    UUID configurationId;
+
+    /**
+     * The score that the player achieved in the game.
+     */
+    long score;
+
+    /**
+     * The unique identifier for the user.
+     */
+    @NotNull(message = "user cannot be null")
+    String userId;
+
+    int rewards;
+
+    /**
+     * The access token of the user that is sent with the result.
+     */
+    @Column(length = 8192)
+    String accessToken;
+
+    @Enumerated(EnumType.STRING)
+    Status status;
+
+    /**
+     * The number of failed delivery attempts.
+     */
+    int attempts;
+
+    /**
+     * The date and time when the entry was created.
+     */
+    LocalDateTime createdAt;
+
+    /**
+     * The date and time before which the entry is not picked up by a dispatcher.
+     */
+    LocalDateTime nextAttemptAt;
+
+    /**
+     * The date and time when the entry was delivered.
+     */
+    LocalDateTime deliveredAt;
+
+    /**
+     * The error of the last failed delivery attempt.
+     */
+    @Column(length = 1024)
+    String lastError;
+
+    public OverworldResultOutboxEntry(final OverworldResultDTO resultDTO, final String accessToken) {
+        this.game = resultDTO.getGame();
+        this.configurationId = resultDTO.getConfigurationId();
+        this.score = resultDTO.getScore();
+        this.userId = resultDTO.getUserId();
+        this.rewards = resultDTO.getRewards();
+        this.accessToken = accessToken;
+        this.status = Status.PENDING;
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+
+    /**
+     * @return the result that has to be sent to the overworld-backend
+     */
+    public OverworldResultDTO toOverworldResultDTO() {
+        return new OverworldResultDTO(game, configurationId, score, userId, rewards);
+    }
+}
@@ -0,0 +1,55 @@
+package de.unistuttgart.towerdefensebackend.data;
+
+import java.io.Serializable;
+import java.util.UUID;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * The PerfectScoreCounter class counts how often a player achieved a score of 100 with a configuration.
+ * It is only changed with an atomic upsert, see PerfectScoreCounterRepository.
+ */
+@Entity
+@IdClass(PerfectScoreCounter.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class PerfectScoreCounter {
+
+    /**
+     * ID of the player.
+     */
+    @Id
+    String playerId;
+
+    /**
+     * UUID of the configuration that was played.
+     */
+    @Id
+    UUID configurationId;
+
+    /**
+     * The number of games with a score of 100.
+     */
+    int perfectScoreCount;
+
+    /**
+     * The primary key of a perfect score counter.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Key implements Serializable {
+
+        String playerId;
+        UUID configurationId;
+    }
+}
@@ -5,14 +5,21 @@ import java.util.Set;
 import java.util.UUID;
 import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
-import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.Transient;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.BatchSize;
+import org.springframework.data.domain.Persistable;
 import org.springframework.validation.annotation.Validated;
 
 /**
@@ -23,13 +30,14 @@ import org.springframework.validation.annotation.Validated;
 @NoArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @Validated
-public class Question {
+public class Question implements Persistable<UUID> {
 
     /**
      * A unique identifier for the question.
+     * It is assigned when the question is created and not by the database, so the hash code of a new question does
+     * not change when it is persisted.
      */
     @Id
-    @GeneratedValue(generator = "uuid")
     UUID id;
 
     /**
@@ -50,14 +58,56 @@ public class Question {
      * A set of wrong answers.
      */
     @ElementCollection
+    @BatchSize(size = 100)
     Set<String> wrongAnswers;
 
+    /**
+     * Whether the question was loaded from or saved to the database, otherwise it is new and is inserted on save.
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    boolean persisted;
+
     public Question(final String text, final String correctAnswer, final Set<String> wrongAnswers) {
+        this.id = UUID.randomUUID();
         this.text = text;
         this.correctAnswer = correctAnswer;
         this.wrongAnswers = wrongAnswers;
     }
 
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.persisted = true;
+    }
+
+    /**
+     * @return whether the question has to be inserted, so saving it does not need to look it up first
+     */
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    /**
+     * Questions are equal if they have the same id. Questions without id are only equal to themselves.
+     * The hash code only depends on the id, which is assigned before the question is persisted, so a question can be
+     * changed while it is part of a set.
+     */
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) return true;
+        if (!(other instanceof Question otherQuestion)) return false;
+        return id != null && id.equals(otherQuestion.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return id != null ? id.hashCode() : System.identityHashCode(this);
+    }
+
     @Override
     public Question clone() {
         return new Question(this.text, this.correctAnswer, new HashSet<>(this.wrongAnswers));
@@ -1,5 +1,6 @@
 package de.unistuttgart.towerdefensebackend.data;
 
+import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
@@ -54,6 +55,13 @@ public class QuestionDTO {
         this.wrongAnswers = wrongAnswers;
     }
 
+    /**
+     * @return a copy of the question that can be changed without changing this one
+     */
+    public QuestionDTO copy() {
+        return new QuestionDTO(id, text, correctAnswer, wrongAnswers != null ? new HashSet<>(wrongAnswers) : null);
+    }
+
     public boolean equalsContent(final QuestionDTO other) {
         if (this == other) return true;
         if (other == null) return false;
@@ -0,0 +1,37 @@
+package de.unistuttgart.towerdefensebackend.data;
+
+import java.util.UUID;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * The QuestionStatistic class counts how often a question was answered correctly and incorrectly.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class QuestionStatistic {
+
+    /**
+     * UUID of the question.
+     */
+    @Id
+    UUID questionId;
+
+    /**
+     * The number of correct answers to the question.
+     */
+    long correctCount;
+
+    /**
+     * The number of incorrect answers to the question.
+     */
+    long wrongCount;
+}
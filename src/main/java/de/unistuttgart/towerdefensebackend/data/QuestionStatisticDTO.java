@@ -0,0 +1,44 @@
+package de.unistuttgart.towerdefensebackend.data;
+
+import java.util.List;
+import java.util.UUID;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * The QuestionStatisticDTO class contains how a question of a configuration was answered.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class QuestionStatisticDTO {
+
+    /**
+     * UUID of the question.
+     */
+    UUID questionId;
+
+    /**
+     * The text of the question.
+     */
+    String text;
+
+    /**
+     * The number of correct answers to the question.
+     */
+    long correctCount;
+
+    /**
+     * The number of incorrect answers to the question.
+     */
+    long wrongCount;
+
+    /**
+     * The chosen answers, the most chosen first.
+     */
+    List<AnswerStatisticDTO> answers;
+}
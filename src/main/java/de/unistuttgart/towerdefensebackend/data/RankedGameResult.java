@@ -0,0 +1,21 @@
+package de.unistuttgart.towerdefensebackend.data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projection of the game results that are on the leaderboard of their configuration.
+ */
+public interface RankedGameResult {
+    UUID getId();
+
+    UUID getConfigurationId();
+
+    String getPlayerId();
+
+    int getPoints();
+
+    long getScore();
+
+    LocalDateTime getPlayedTime();
+}
@@ -2,10 +2,13 @@ package de.unistuttgart.towerdefensebackend.data.mapper;
 
 import de.unistuttgart.towerdefensebackend.data.Configuration;
 import de.unistuttgart.towerdefensebackend.data.ConfigurationDTO;
+import de.unistuttgart.towerdefensebackend.data.Question;
+import de.unistuttgart.towerdefensebackend.data.QuestionDTO;
 
 import java.util.List;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 /**
  * This mapper maps the ConfigurationDTO objects (used from external clients) and Configuration objects (used from internal code)
@@ -14,7 +17,15 @@ import org.mapstruct.Mapper;
 public interface ConfigurationMapper {
     ConfigurationDTO configurationToConfigurationDTO(final Configuration configuration);
 
+    @Mapping(target = "lastModified", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Configuration configurationDTOToConfiguration(final ConfigurationDTO configurationDTO);
 
     List<ConfigurationDTO> configurationsToConfigurationDTOs(final List<Configuration> configurations);
+
+    /**
+     * A question without id gets a new one, because the ids of questions are assigned before they are persisted.
+     */
+    @Mapping(target = "id", defaultExpression = "java(java.util.UUID.randomUUID())")
+    Question questionDTOToQuestion(final QuestionDTO questionDTO);
 }
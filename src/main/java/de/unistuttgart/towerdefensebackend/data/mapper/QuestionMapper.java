@@ -6,6 +6,7 @@ import de.unistuttgart.towerdefensebackend.data.QuestionDTO;
 import java.util.Set;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 /**
  * This mapper maps the QuestionDTO objects (used from external clients) and Question objects (used from internal code)
@@ -14,6 +15,10 @@ import org.mapstruct.Mapper;
 public interface QuestionMapper {
     QuestionDTO questionToQuestionDTO(final Question question);
 
+    /**
+     * A question without id gets a new one, because the ids of questions are assigned before they are persisted.
+     */
+    @Mapping(target = "id", defaultExpression = "java(java.util.UUID.randomUUID())")
     Question questionDTOToQuestion(final QuestionDTO questionDTO);
 
     Set<Question> questionDTOsToQuestions(final Set<QuestionDTO> questionDTOs);
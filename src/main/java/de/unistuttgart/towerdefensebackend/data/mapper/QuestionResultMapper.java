@@ -6,7 +6,13 @@ import de.unistuttgart.towerdefensebackend.data.QuestionResultDTO;
 import de.unistuttgart.towerdefensebackend.repositories.QuestionRepository;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.mapstruct.Mapper;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -34,8 +40,84 @@ public abstract class QuestionResultMapper {
     }
 
     public List<QuestionResult> questionResultDTOsToQuestionResults(final List<QuestionResultDTO> questionResultDTOs) {
-        final List<QuestionResult> questionResults = new ArrayList<>();
-        questionResultDTOs.forEach(questionResultDTO -> questionResults.add(questionResultDTOToQuestionResult(questionResultDTO)));
+        return questionResultDTOsToQuestionResults(questionResultDTOs, resolveQuestions(questionResultDTOs));
+    }
+
+    /**
+     * Maps the question result DTOs with questions that were already resolved by {@link #resolveQuestions(Collection)}.
+     *
+     * @param questionResultDTOs the question result DTOs to map
+     * @param questions          the resolved questions by their id
+     * @return the question results
+     */
+    public List<QuestionResult> questionResultDTOsToQuestionResults(
+            final List<QuestionResultDTO> questionResultDTOs,
+            final Map<UUID, Question> questions
+    ) {
+        final List<QuestionResult> questionResults = new ArrayList<>(questionResultDTOs.size());
+        questionResultDTOs.forEach(questionResultDTO ->
+                questionResults.add(
+                        new QuestionResult(questions.get(questionResultDTO.getQuestionUUId()), questionResultDTO.getAnswer())
+                )
+        );
         return questionResults;
     }
+
+    /**
+     * Loads all questions referenced by the given question result DTOs with a single query.
+     *
+     * @param questionResultDTOs the question result DTOs whose questions should be loaded
+     * @return the loaded questions by their id
+     * @throws ResponseStatusException when at least one question does not exist, listing all unknown uuids
+     */
+    public Map<UUID, Question> resolveQuestions(final Collection<QuestionResultDTO> questionResultDTOs) {
+        final Map<UUID, Question> questions = findQuestions(questionResultDTOs);
+        final List<UUID> unknownIds = getUnknownQuestionIds(questionResultDTOs, questions);
+        if (!unknownIds.isEmpty()) {
+            throw new ResponseStatusException(
+                    HttpStatus.NOT_FOUND,
+                    String.format("There are no questions with uuids %s.", unknownIds)
+            );
+        }
+        return questions;
+    }
+
+    /**
+     * Loads all existing questions referenced by the given question result DTOs with a single query.
+     * Unknown question ids are ignored.
+     *
+     * @param questionResultDTOs the question result DTOs whose questions should be loaded
+     * @return the loaded questions by their id
+     */
+    public Map<UUID, Question> findQuestions(final Collection<QuestionResultDTO> questionResultDTOs) {
+        final Set<UUID> questionIds = questionResultDTOs
+                .stream()
+                .map(QuestionResultDTO::getQuestionUUId)
+                .collect(Collectors.toSet());
+        if (questionIds.isEmpty()) {
+            return Map.of();
+        }
+        return questionRepository
+                .findAllById(questionIds)
+                .stream()
+                .collect(Collectors.toMap(Question::getId, Function.identity()));
+    }
+
+    /**
+     * @param questionResultDTOs the question result DTOs to check
+     * @param questions          the loaded questions by their id
+     * @return the sorted question ids of the DTOs that are not contained in the loaded questions
+     */
+    public List<UUID> getUnknownQuestionIds(
+            final Collection<QuestionResultDTO> questionResultDTOs,
+            final Map<UUID, Question> questions
+    ) {
+        return questionResultDTOs
+                .stream()
+                .map(QuestionResultDTO::getQuestionUUId)
+                .filter(questionId -> !questions.containsKey(questionId))
+                .distinct()
+                .sorted()
+                .toList();
+    }
 }
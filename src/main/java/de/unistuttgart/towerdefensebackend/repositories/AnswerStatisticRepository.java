@@ -0,0 +1,56 @@
+package de.unistuttgart.towerdefensebackend.repositories;
+
+import de.unistuttgart.towerdefensebackend.data.AnswerStatistic;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AnswerStatisticRepository extends JpaRepository<AnswerStatistic, AnswerStatistic.Key> {
+    List<AnswerStatistic> findByQuestionIdInOrderByChosenCountDesc(final Collection<UUID> questionIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM answer_statistic", nativeQuery = true)
+    void deleteAllStatistics();
+
+    /**
+     * Deletes the counters of the answers of the questions, locking them in the order of the question ids and answers
+     * like the upserts do.
+     */
+    @Modifying
+    @Query(
+            value = "DELETE FROM answer_statistic WHERE (question_id, answer) IN (" +
+            "SELECT question_id, answer FROM answer_statistic WHERE question_id IN (:questionIds) " +
+            "ORDER BY question_id, answer FOR UPDATE)",
+            nativeQuery = true
+    )
+    void deleteByQuestionIds(@Param("questionIds") final Collection<UUID> questionIds);
+
+    /**
+     * Recomputes the counters of all answers from the saved and archived game results.
+     */
+    @Modifying
+    @Query(
+            value = "INSERT INTO answer_statistic (question_id, answer, chosen_count) " +
+            "SELECT question_id, answer, COUNT(*) FROM (" +
+            "SELECT qr.question_id, qr.answer FROM question_result qr " +
+            "WHERE EXISTS (SELECT 1 FROM game_result_correct_answered_questions c " +
+            "WHERE c.correct_answered_questions_id = qr.id) " +
+            "OR EXISTS (SELECT 1 FROM game_result_wrong_answered_questions w " +
+            "WHERE w.wrong_answered_questions_id = qr.id) " +
+            "UNION ALL " +
+            "SELECT a.question_id, a.answer FROM game_result_archive g CROSS JOIN LATERAL unnest(" +
+            "g.correct_question_ids || g.wrong_question_ids, g.correct_answers || g.wrong_answers" +
+            ") AS a(question_id, answer)" +
+            ") answers GROUP BY question_id, answer",
+            nativeQuery = true
+    )
+    int insertStatisticsFromGameResults();
+}
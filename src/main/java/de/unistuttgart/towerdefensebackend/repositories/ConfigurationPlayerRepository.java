@@ -0,0 +1,27 @@
+package de.unistuttgart.towerdefensebackend.repositories;
+
+import de.unistuttgart.towerdefensebackend.data.ConfigurationPlayer;
+
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ConfigurationPlayerRepository extends JpaRepository<ConfigurationPlayer, ConfigurationPlayer.Key> {
+    @Modifying
+    @Query(value = "DELETE FROM configuration_player", nativeQuery = true)
+    void deleteAllPlayers();
+
+    @Modifying
+    @Query(
+            value = "INSERT INTO configuration_player (configuration_id, player_id) " +
+            "SELECT configuration_asuuid, player_id FROM game_result " +
+            "UNION " +
+            "SELECT configuration_asuuid, player_id FROM game_result_archive",
+            nativeQuery = true
+    )
+    int insertPlayersFromGameResults();
+}
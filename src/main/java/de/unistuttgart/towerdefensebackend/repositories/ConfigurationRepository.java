@@ -1,12 +1,137 @@
 package de.unistuttgart.towerdefensebackend.repositories;
 
+import de.unistuttgart.towerdefensebackend.Constants;
 import de.unistuttgart.towerdefensebackend.data.Configuration;
+import de.unistuttgart.towerdefensebackend.data.ConfigurationSummaryDTO;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ConfigurationRepository extends JpaRepository<Configuration, UUID> {
+    @EntityGraph(Configuration.WITH_QUESTIONS)
+    Optional<Configuration> findWithQuestionsById(final UUID id);
+
+    /**
+     * Loads the configurations with their questions in one query.
+     * Configurations that are already managed get their questions initialized.
+     *
+     * @param ids the ids of the configurations
+     * @return the configurations, in no particular order
+     */
+    @EntityGraph(Configuration.WITH_QUESTIONS)
+    List<Configuration> findWithQuestionsByIdIn(final Collection<UUID> ids);
+
+    /**
+     * Reads only the version of the configuration by its primary key, without loading the questions.
+     *
+     * @param id the id of the configuration
+     * @return the version, empty if the configuration does not exist
+     */
+    @Query("SELECT c.version FROM Configuration c WHERE c.id = :id")
+    Optional<Long> findVersionById(@Param("id") final UUID id);
+
+    List<Configuration> findAllByOrderByIdAsc(final Pageable pageable);
+
+    List<Configuration> findByIdGreaterThanOrderByIdAsc(final UUID after, final Pageable pageable);
+
+    @Query(
+            "SELECT new de.unistuttgart.towerdefensebackend.data.ConfigurationSummaryDTO(c.id, SIZE(c.questions), c.lastModified) " +
+            "FROM Configuration c ORDER BY c.id"
+    )
+    List<ConfigurationSummaryDTO> findSummaries(final Pageable pageable);
+
+    @Query(
+            "SELECT new de.unistuttgart.towerdefensebackend.data.ConfigurationSummaryDTO(c.id, SIZE(c.questions), c.lastModified) " +
+            "FROM Configuration c WHERE c.id > :after ORDER BY c.id"
+    )
+    List<ConfigurationSummaryDTO> findSummariesAfter(@Param("after") final UUID after, final Pageable pageable);
+
+    /**
+     * Streams all configurations ordered by id from a database cursor.
+     * Has to be called in a transaction, the configurations should be detached after they are processed.
+     *
+     * @return the configurations, has to be closed
+     */
+    @QueryHints(
+            {
+                    @QueryHint(name = "org.hibernate.fetchSize", value = "" + Constants.EXPORT_FETCH_SIZE),
+                    @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+            }
+    )
+    @Query("SELECT c FROM Configuration c ORDER BY c.id")
+    Stream<Configuration> streamAll();
+
+    /**
+     * Copies the configuration with the given id and its questions and wrong answers with a single statement,
+     * without loading them.
+     *
+     * @param id    the id of the configuration to copy
+     * @param count the number of copies
+     * @return the ids of the copies
+     */
+    @Query(
+            value = "WITH new_configuration AS (" +
+            "    INSERT INTO configuration (id, last_modified, version) " +
+            "    SELECT gen_random_uuid(), now(), 0 FROM generate_series(1, :count) " +
+            "    RETURNING id" +
+            "), question_copy AS (" +
+            "    SELECT c.id AS configuration_id, cq.questions_id AS source_id, gen_random_uuid() AS question_id " +
+            "    FROM new_configuration c CROSS JOIN configuration_questions cq " +
+            "    WHERE cq.configuration_id = :id" +
+            "), new_question AS (" +
+            "    INSERT INTO question (id, text, correct_answer) " +
+            "    SELECT qc.question_id, q.text, q.correct_answer " +
+            "    FROM question_copy qc JOIN question q ON q.id = qc.source_id" +
+            "), new_configuration_question AS (" +
+            "    INSERT INTO configuration_questions (configuration_id, questions_id) " +
+            "    SELECT configuration_id, question_id FROM question_copy" +
+            "), new_wrong_answer AS (" +
+            "    INSERT INTO question_wrong_answers (question_id, wrong_answers) " +
+            "    SELECT qc.question_id, wa.wrong_answers " +
+            "    FROM question_copy qc JOIN question_wrong_answers wa ON wa.question_id = qc.source_id" +
+            ") " +
+            "SELECT CAST(id AS varchar) FROM new_configuration",
+            nativeQuery = true
+    )
+    List<String> cloneConfiguration(@Param("id") final UUID id, @Param("count") final int count);
+
+    /**
+     * Adds already saved questions to the configuration without loading its other questions.
+     *
+     * @param id          the id of the configuration
+     * @param questionIds the ids of the questions to add
+     * @return the number of added questions
+     */
+    @Modifying
+    @Query(
+            value = "INSERT INTO configuration_questions (configuration_id, questions_id) " +
+            "SELECT :id, q.id FROM question q WHERE q.id IN (:questionIds)",
+            nativeQuery = true
+    )
+    int addQuestions(@Param("id") final UUID id, @Param("questionIds") final Collection<UUID> questionIds);
+
+    /**
+     * Marks the configuration as changed without loading it, see {@link Configuration#markModified()}.
+     *
+     * @param id           the id of the configuration
+     * @param lastModified the date and time of the change
+     */
+    @Modifying
+    @Query("UPDATE Configuration c SET c.lastModified = :lastModified, c.version = c.version + 1 WHERE c.id = :id")
+    void markModified(@Param("id") final UUID id, @Param("lastModified") final LocalDateTime lastModified);
 }
@@ -0,0 +1,89 @@
+package de.unistuttgart.towerdefensebackend.repositories;
+
+import de.unistuttgart.towerdefensebackend.data.ConfigurationResultRollup;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ConfigurationResultRollupRepository
+        extends JpaRepository<ConfigurationResultRollup, ConfigurationResultRollup.Key> {
+    /**
+     * Adds the given deltas to one stripe of the rollup of a configuration with a single atomic upsert.
+     */
+    @Modifying
+    @Query(
+            value = "INSERT INTO configuration_result_rollup " +
+            "(configuration_id, stripe, plays, score_sum, correct_answer_sum, wrong_answer_sum, distinct_players) " +
+            "VALUES (:configurationId, :stripe, :plays, :scoreSum, :correctAnswerSum, :wrongAnswerSum, :distinctPlayers) " +
+            "ON CONFLICT (configuration_id, stripe) DO UPDATE SET " +
+            "plays = configuration_result_rollup.plays + EXCLUDED.plays, " +
+            "score_sum = configuration_result_rollup.score_sum + EXCLUDED.score_sum, " +
+            "correct_answer_sum = configuration_result_rollup.correct_answer_sum + EXCLUDED.correct_answer_sum, " +
+            "wrong_answer_sum = configuration_result_rollup.wrong_answer_sum + EXCLUDED.wrong_answer_sum, " +
+            "distinct_players = configuration_result_rollup.distinct_players + EXCLUDED.distinct_players",
+            nativeQuery = true
+    )
+    void add(
+            @Param("configurationId") final UUID configurationId,
+            @Param("stripe") final int stripe,
+            @Param("plays") final long plays,
+            @Param("scoreSum") final long scoreSum,
+            @Param("correctAnswerSum") final long correctAnswerSum,
+            @Param("wrongAnswerSum") final long wrongAnswerSum,
+            @Param("distinctPlayers") final long distinctPlayers
+    );
+
+    List<ConfigurationResultRollup> findByConfigurationId(final UUID configurationId);
+
+    /**
+     * Takes a lock that is held until the end of the transaction, if no other transaction holds it.
+     *
+     * @return whether the lock was taken
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryLock(@Param("key") final long key);
+
+    /**
+     * Takes a lock that is held until the end of the transaction, waits until no other transaction holds it.
+     */
+    @Query(value = "SELECT CAST(pg_advisory_xact_lock(:key) AS varchar)", nativeQuery = true)
+    String lock(@Param("key") final long key);
+
+    /**
+     * Takes a shared lock that is held until the end of the transaction, waits while another transaction holds it
+     * exclusively.
+     */
+    @Query(value = "SELECT CAST(pg_advisory_xact_lock_shared(:key) AS varchar)", nativeQuery = true)
+    String lockShared(@Param("key") final long key);
+
+    @Modifying
+    @Query(value = "DELETE FROM configuration_result_rollup", nativeQuery = true)
+    void deleteAllRollups();
+
+    /**
+     * Recomputes the rollups of all configurations from the saved and archived game results into stripe 0.
+     */
+    @Modifying
+    @Query(
+            value = "INSERT INTO configuration_result_rollup " +
+            "(configuration_id, stripe, plays, score_sum, correct_answer_sum, wrong_answer_sum, distinct_players) " +
+            "SELECT configuration_asuuid, 0, COUNT(*), SUM(score), SUM(correct_answer_count), " +
+            "SUM(wrong_answer_count), COUNT(DISTINCT player_id) " +
+            "FROM (" +
+            "SELECT configuration_asuuid, score, correct_answer_count, wrong_answer_count, player_id " +
+            "FROM game_result " +
+            "UNION ALL " +
+            "SELECT configuration_asuuid, score, correct_answer_count, wrong_answer_count, player_id " +
+            "FROM game_result_archive" +
+            ") results GROUP BY configuration_asuuid",
+            nativeQuery = true
+    )
+    int insertRollupsFromGameResults();
+}
@@ -1,9 +1,212 @@
 package de.unistuttgart.towerdefensebackend.repositories;
 
 import de.unistuttgart.towerdefensebackend.data.GameResult;
+import de.unistuttgart.towerdefensebackend.data.GameResultSummary;
+import de.unistuttgart.towerdefensebackend.data.RankedGameResult;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface GameResultRepository extends JpaRepository<GameResult, Long> {
+public interface GameResultRepository extends JpaRepository<GameResult, UUID> {
+    /**
+     * Columns of the result history, the same in game_result and game_result_archive.
+     */
+    String HISTORY_COLUMNS =
+            "id, configuration_asuuid, player_id, played_time, question_count, correct_answer_count, " +
+            "wrong_answer_count, points, score, rewards";
+
+    /**
+     * Selects the result history from the union of both tables, each limited on its own before they are merged.
+     */
+    String HISTORY_SELECT =
+            "SELECT CAST(id AS varchar) AS id, CAST(configuration_asuuid AS varchar) AS configurationId, " +
+            "player_id AS playerId, played_time AS playedTime, question_count AS questionCount, " +
+            "correct_answer_count AS correctAnswerCount, wrong_answer_count AS wrongAnswerCount, " +
+            "points, score, rewards FROM ";
+
+    /**
+     * Orders the result history newest first and starts it after the keyset of the previous page.
+     */
+    String HISTORY_PAGE =
+            " AND (played_time, id) < (:beforePlayedTime, :beforeId) ORDER BY played_time DESC, id DESC LIMIT :limit";
+
+    /**
+     * Ranks the game results played since the given time per configuration by points, score and played time.
+     * Archived game results are included.
+     *
+     * @param since the time since which the game results were played
+     * @param size  the number of best game results per configuration
+     * @return the best game results of each configuration
+     */
+    @Query(
+            value = "SELECT CAST(id AS varchar) AS id, CAST(configuration_asuuid AS varchar) AS configurationId, " +
+            "player_id AS playerId, points, score, " +
+            "played_time AS playedTime FROM (" +
+            "SELECT *, ROW_NUMBER() OVER (PARTITION BY configuration_asuuid " +
+            "ORDER BY points DESC, score DESC, played_time, id) AS position FROM (" +
+            "SELECT id, configuration_asuuid, player_id, points, score, played_time " +
+            "FROM game_result WHERE played_time >= :since " +
+            "UNION ALL " +
+            "SELECT id, configuration_asuuid, player_id, points, score, played_time " +
+            "FROM game_result_archive WHERE played_time >= :since" +
+            ") results" +
+            ") ranked WHERE position <= :size",
+            nativeQuery = true
+    )
+    List<RankedGameResult> findTopResultsPerConfiguration(
+            @Param("since") final LocalDateTime since,
+            @Param("size") final int size
+    );
+
+    /**
+     * Returns a page of the saved and archived game results of a player, newest first.
+     *
+     * @param playerId         the id of the player
+     * @param beforePlayedTime the played time of the last game result of the previous page
+     * @param beforeId         the id of the last game result of the previous page
+     * @param limit            the maximum number of game results
+     * @return the game results played before the given keyset
+     */
+    @Query(
+            value = HISTORY_SELECT + "(" +
+            "(SELECT " + HISTORY_COLUMNS + " FROM game_result WHERE player_id = :playerId" + HISTORY_PAGE + ") " +
+            "UNION ALL " +
+            "(SELECT " + HISTORY_COLUMNS + " FROM game_result_archive WHERE player_id = :playerId" + HISTORY_PAGE +
+            ")) results ORDER BY results.played_time DESC, results.id DESC LIMIT :limit",
+            nativeQuery = true
+    )
+    List<GameResultSummary> findHistoryOfPlayer(
+            @Param("playerId") final String playerId,
+            @Param("beforePlayedTime") final LocalDateTime beforePlayedTime,
+            @Param("beforeId") final UUID beforeId,
+            @Param("limit") final int limit
+    );
+
+    /**
+     * Returns a page of the saved and archived game results of a configuration, newest first.
+     *
+     * @param configurationId  the id of the configuration
+     * @param beforePlayedTime the played time of the last game result of the previous page
+     * @param beforeId         the id of the last game result of the previous page
+     * @param limit            the maximum number of game results
+     * @return the game results played before the given keyset
+     */
+    @Query(
+            value = HISTORY_SELECT + "(" +
+            "(SELECT " + HISTORY_COLUMNS + " FROM game_result " +
+            "WHERE configuration_asuuid = :configurationId" + HISTORY_PAGE + ") " +
+            "UNION ALL " +
+            "(SELECT " + HISTORY_COLUMNS + " FROM game_result_archive " +
+            "WHERE configuration_asuuid = :configurationId" + HISTORY_PAGE +
+            ")) results ORDER BY results.played_time DESC, results.id DESC LIMIT :limit",
+            nativeQuery = true
+    )
+    List<GameResultSummary> findHistoryOfConfiguration(
+            @Param("configurationId") final UUID configurationId,
+            @Param("beforePlayedTime") final LocalDateTime beforePlayedTime,
+            @Param("beforeId") final UUID beforeId,
+            @Param("limit") final int limit
+    );
+
+    /**
+     * Returns a page of the saved and archived game results of a player with a configuration, newest first.
+     *
+     * @param playerId         the id of the player
+     * @param configurationId  the id of the configuration
+     * @param beforePlayedTime the played time of the last game result of the previous page
+     * @param beforeId         the id of the last game result of the previous page
+     * @param limit            the maximum number of game results
+     * @return the game results played before the given keyset
+     */
+    @Query(
+            value = HISTORY_SELECT + "(" +
+            "(SELECT " + HISTORY_COLUMNS + " FROM game_result " +
+            "WHERE player_id = :playerId AND configuration_asuuid = :configurationId" + HISTORY_PAGE + ") " +
+            "UNION ALL " +
+            "(SELECT " + HISTORY_COLUMNS + " FROM game_result_archive " +
+            "WHERE player_id = :playerId AND configuration_asuuid = :configurationId" + HISTORY_PAGE +
+            ")) results ORDER BY results.played_time DESC, results.id DESC LIMIT :limit",
+            nativeQuery = true
+    )
+    List<GameResultSummary> findHistoryOfPlayerAndConfiguration(
+            @Param("playerId") final String playerId,
+            @Param("configurationId") final UUID configurationId,
+            @Param("beforePlayedTime") final LocalDateTime beforePlayedTime,
+            @Param("beforeId") final UUID beforeId,
+            @Param("limit") final int limit
+    );
+
+    /**
+     * @param id the id of the game result
+     * @return the played time of the saved or archived game result
+     */
+    @Query(
+            value = "SELECT played_time FROM game_result WHERE id = :id " +
+            "UNION ALL " +
+            "SELECT played_time FROM game_result_archive WHERE id = :id",
+            nativeQuery = true
+    )
+    Optional<LocalDateTime> findPlayedTimeById(@Param("id") final UUID id);
+
+    /**
+     * @return the played time of the oldest game result that is not archived
+     */
+    @Query("SELECT MIN(g.playedTime) FROM GameResult g")
+    Optional<LocalDateTime> findOldestPlayedTime();
+
+    /**
+     * Moves the oldest game results played before the given time with their question results into the archive.
+     * Game results that are locked by another transaction are skipped.
+     *
+     * @param before    the time before which the game results were played
+     * @param batchSize the maximal number of game results to move
+     * @return the number of moved game results
+     */
+    @Modifying
+    @Query(
+            value = "WITH batch AS (" +
+            "SELECT id FROM game_result WHERE played_time < :before ORDER BY played_time LIMIT :batchSize " +
+            "FOR UPDATE SKIP LOCKED" +
+            "), archived AS (" +
+            "INSERT INTO game_result_archive (id, configuration_asuuid, player_id, played_time, question_count, " +
+            "correct_answer_count, wrong_answer_count, points, score, rewards, " +
+            "correct_question_ids, correct_answers, wrong_question_ids, wrong_answers) " +
+            "SELECT g.id, g.configuration_asuuid, g.player_id, g.played_time, g.question_count, " +
+            "g.correct_answer_count, g.wrong_answer_count, g.points, g.score, g.rewards, " +
+            "ARRAY(SELECT qr.question_id FROM game_result_correct_answered_questions c " +
+            "JOIN question_result qr ON qr.id = c.correct_answered_questions_id " +
+            "WHERE c.game_result_id = g.id ORDER BY qr.id), " +
+            "ARRAY(SELECT qr.answer FROM game_result_correct_answered_questions c " +
+            "JOIN question_result qr ON qr.id = c.correct_answered_questions_id " +
+            "WHERE c.game_result_id = g.id ORDER BY qr.id), " +
+            "ARRAY(SELECT qr.question_id FROM game_result_wrong_answered_questions w " +
+            "JOIN question_result qr ON qr.id = w.wrong_answered_questions_id " +
+            "WHERE w.game_result_id = g.id ORDER BY qr.id), " +
+            "ARRAY(SELECT qr.answer FROM game_result_wrong_answered_questions w " +
+            "JOIN question_result qr ON qr.id = w.wrong_answered_questions_id " +
+            "WHERE w.game_result_id = g.id ORDER BY qr.id) " +
+            "FROM game_result g WHERE g.id IN (SELECT id FROM batch)" +
+            "), correct AS (" +
+            "DELETE FROM game_result_correct_answered_questions WHERE game_result_id IN (SELECT id FROM batch) " +
+            "RETURNING correct_answered_questions_id AS question_result_id" +
+            "), wrong AS (" +
+            "DELETE FROM game_result_wrong_answered_questions WHERE game_result_id IN (SELECT id FROM batch) " +
+            "RETURNING wrong_answered_questions_id AS question_result_id" +
+            "), question_results AS (" +
+            "DELETE FROM question_result WHERE id IN " +
+            "(SELECT question_result_id FROM correct UNION ALL SELECT question_result_id FROM wrong)" +
+            ") " +
+            "DELETE FROM game_result WHERE id IN (SELECT id FROM batch)",
+            nativeQuery = true
+    )
+    int archiveGameResults(@Param("before") final LocalDateTime before, @Param("batchSize") final int batchSize);
 }
@@ -0,0 +1,72 @@
+package de.unistuttgart.towerdefensebackend.repositories;
+
+import de.unistuttgart.towerdefensebackend.data.OverworldResultOutboxEntry;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OverworldResultOutboxRepository extends JpaRepository<OverworldResultOutboxEntry, UUID> {
+    /**
+     * Locks the due entries with the given status, oldest first.
+     * Rows that are locked by another node are skipped (SELECT ... FOR UPDATE SKIP LOCKED),
+     * so several dispatchers can claim batches concurrently without waiting on each other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query(
+            "SELECT e FROM OverworldResultOutboxEntry e WHERE e.status = :status AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt"
+    )
+    List<OverworldResultOutboxEntry> findDueForUpdate(
+            @Param("status") final OverworldResultOutboxEntry.Status status,
+            @Param("now") final LocalDateTime now,
+            final Pageable pageable
+    );
+
+    long countByStatus(final OverworldResultOutboxEntry.Status status);
+
+    @Query("SELECT MIN(e.createdAt) FROM OverworldResultOutboxEntry e WHERE e.status = :status")
+    Optional<LocalDateTime> findOldestCreatedAt(@Param("status") final OverworldResultOutboxEntry.Status status);
+
+    /**
+     * Moves the next attempt of the given entries with one statement.
+     *
+     * @param ids           the ids of the entries
+     * @param nextAttemptAt the time of the next attempt
+     * @return the number of updated entries
+     */
+    @Modifying
+    @Query("UPDATE OverworldResultOutboxEntry e SET e.nextAttemptAt = :nextAttemptAt WHERE e.id IN :ids")
+    int updateNextAttemptAt(
+            @Param("ids") final Collection<UUID> ids,
+            @Param("nextAttemptAt") final LocalDateTime nextAttemptAt
+    );
+
+    /**
+     * Deletes the entries with one of the given states that were created before the given time with one statement.
+     *
+     * @param statuses the states of the entries to delete
+     * @param before   the time before which the entries were created
+     * @return the number of deleted entries
+     */
+    @Modifying
+    @Query("DELETE FROM OverworldResultOutboxEntry e WHERE e.status IN :statuses AND e.createdAt < :before")
+    int deleteByStatusInAndCreatedAtBefore(
+            @Param("statuses") final Collection<OverworldResultOutboxEntry.Status> statuses,
+            @Param("before") final LocalDateTime before
+    );
+}
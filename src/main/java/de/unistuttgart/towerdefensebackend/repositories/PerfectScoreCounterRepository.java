@@ -0,0 +1,29 @@
+package de.unistuttgart.towerdefensebackend.repositories;
+
+import de.unistuttgart.towerdefensebackend.data.PerfectScoreCounter;
+
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PerfectScoreCounterRepository extends JpaRepository<PerfectScoreCounter, PerfectScoreCounter.Key> {
+    /**
+     * Increments the perfect score counter of the player and configuration with a single atomic upsert.
+     * Concurrent increments of the same counter are serialized by the row lock of the upsert, so none is lost.
+     *
+     * @return the counter value after the increment
+     */
+    @Query(
+            value = "INSERT INTO perfect_score_counter (player_id, configuration_id, perfect_score_count) " +
+            "VALUES (:playerId, :configurationId, 1) " +
+            "ON CONFLICT (player_id, configuration_id) " +
+            "DO UPDATE SET perfect_score_count = perfect_score_counter.perfect_score_count + 1 " +
+            "RETURNING perfect_score_count",
+            nativeQuery = true
+    )
+    int incrementAndGet(@Param("playerId") final String playerId, @Param("configurationId") final UUID configurationId);
+}
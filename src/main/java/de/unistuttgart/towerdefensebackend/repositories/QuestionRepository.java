@@ -2,11 +2,21 @@ package de.unistuttgart.towerdefensebackend.repositories;
 
 import de.unistuttgart.towerdefensebackend.data.Question;
 
+import java.util.Collection;
+import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface QuestionRepository extends JpaRepository<Question, UUID> {
+    /**
+     * @param questionIds the ids of the questions to check
+     * @return the ids of the given questions that are referenced by a question result
+     */
+    @Query("SELECT DISTINCT qr.question.id FROM QuestionResult qr WHERE qr.question.id IN :questionIds")
+    Set<UUID> findIdsReferencedByQuestionResults(@Param("questionIds") final Collection<UUID> questionIds);
 }
@@ -0,0 +1,52 @@
+package de.unistuttgart.towerdefensebackend.repositories;
+
+import de.unistuttgart.towerdefensebackend.data.QuestionStatistic;
+
+import java.util.Collection;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface QuestionStatisticRepository extends JpaRepository<QuestionStatistic, UUID> {
+    @Modifying
+    @Query(value = "DELETE FROM question_statistic", nativeQuery = true)
+    void deleteAllStatistics();
+
+    /**
+     * Deletes the counters of the questions, locking them in the order of the question ids like the upserts do.
+     */
+    @Modifying
+    @Query(
+            value = "DELETE FROM question_statistic WHERE question_id IN (" +
+            "SELECT question_id FROM question_statistic WHERE question_id IN (:questionIds) " +
+            "ORDER BY question_id FOR UPDATE)",
+            nativeQuery = true
+    )
+    void deleteByQuestionIds(@Param("questionIds") final Collection<UUID> questionIds);
+
+    /**
+     * Recomputes the counters of all questions from the saved and archived game results.
+     */
+    @Modifying
+    @Query(
+            value = "INSERT INTO question_statistic (question_id, correct_count, wrong_count) " +
+            "SELECT question_id, SUM(correct), SUM(wrong) FROM (" +
+            "SELECT qr.question_id, 1 AS correct, 0 AS wrong FROM game_result_correct_answered_questions c " +
+            "JOIN question_result qr ON qr.id = c.correct_answered_questions_id " +
+            "UNION ALL " +
+            "SELECT qr.question_id, 0, 1 FROM game_result_wrong_answered_questions w " +
+            "JOIN question_result qr ON qr.id = w.wrong_answered_questions_id " +
+            "UNION ALL " +
+            "SELECT unnest(correct_question_ids), 1, 0 FROM game_result_archive " +
+            "UNION ALL " +
+            "SELECT unnest(wrong_question_ids), 0, 1 FROM game_result_archive" +
+            ") answers GROUP BY question_id",
+            nativeQuery = true
+    )
+    int insertStatisticsFromGameResults();
+}
@@ -1,21 +1,39 @@
 package de.unistuttgart.towerdefensebackend.service;
 
-import de.unistuttgart.gamifyit.authentificationvalidator.JWTValidatorService;
-import de.unistuttgart.towerdefensebackend.clients.OverworldClient;
+import de.unistuttgart.towerdefensebackend.CacheConfiguration;
+import de.unistuttgart.towerdefensebackend.Constants;
 import de.unistuttgart.towerdefensebackend.data.*;
 import de.unistuttgart.towerdefensebackend.data.mapper.ConfigurationMapper;
 import de.unistuttgart.towerdefensebackend.data.mapper.QuestionMapper;
+import de.unistuttgart.towerdefensebackend.repositories.AnswerStatisticRepository;
 import de.unistuttgart.towerdefensebackend.repositories.ConfigurationRepository;
 import de.unistuttgart.towerdefensebackend.repositories.QuestionRepository;
+import de.unistuttgart.towerdefensebackend.repositories.QuestionStatisticRepository;
+import io.micrometer.core.annotation.Timed;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import javax.validation.Valid;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,6 +45,7 @@ import org.springframework.web.server.ResponseStatusException;
 @Service
 @Slf4j
 @Transactional
+@Timed(value = "service.method", histogram = true)
 public class ConfigService {
 
     @Autowired
@@ -42,10 +61,19 @@ public class ConfigService {
     QuestionRepository questionRepository;
 
     @Autowired
-    private OverworldClient overworldClient;
+    private QuestionStatisticRepository questionStatisticRepository;
 
     @Autowired
-    private JWTValidatorService jwtValidatorService;
+    private AnswerStatisticRepository answerStatisticRepository;
+
+    @Autowired
+    private VolumeLevelCache volumeLevelCache;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     /**
      * Search a configuration by given id
@@ -60,7 +88,7 @@ public class ConfigService {
             throw new IllegalArgumentException("id is null");
         }
         return configurationRepository
-                .findById(id)
+                .findWithQuestionsById(id)
                 .orElseThrow(() ->
                         new ResponseStatusException(
                                 HttpStatus.NOT_FOUND,
@@ -70,34 +98,58 @@ public class ConfigService {
     }
 
     /**
-     * Search a configuration by given id and get volume level from overworld-backend
+     * Search a configuration by given id and return it as DTO, without reading or filling the cache.
      *
      * @param id the id of the configuration searching for
-     * @param accessToken the users access token
-     * @return the found configuration
+     * @return the found configuration as DTO
+     * @throws ResponseStatusException  when configuration by configurationName could not be found
+     * @throws IllegalArgumentException if at least one of the arguments is null
+     */
+    public ConfigurationDTO getUncachedConfigurationDTO(final UUID id) {
+        return configurationMapper.configurationToConfigurationDTO(getConfiguration(id));
+    }
+
+    /**
+     * Search a configuration by given id and return it as DTO.
+     * The result is cached, concurrent cache misses for the same id are collapsed into one database load.
+     * A copy of the cached DTO is returned, so changes of the caller do not reach the cache.
+     *
+     * @param id the id of the configuration searching for
+     * @return the found configuration as DTO, owned by the caller
      * @throws ResponseStatusException  when configuration by configurationName could not be found
      * @throws IllegalArgumentException if at least one of the arguments is null
      */
-    public Configuration getAllConfigurations(final UUID id, final String accessToken) {
+    public ConfigurationDTO getConfigurationDTO(final UUID id) {
         if (id == null) {
             throw new IllegalArgumentException("id is null");
         }
-        final String userId = jwtValidatorService.extractUserId(accessToken);
-
-        KeybindingDTO keyBindingVolumeLevel = overworldClient.getKeybindingStatistic(userId, "VOLUME_LEVEL", accessToken);
-        Integer volumeLevel = Integer.parseInt(keyBindingVolumeLevel.getKey());
+        try {
+            final ConfigurationDTO configuration = cacheManager
+                    .getCache(CacheConfiguration.CONFIGURATION_CACHE)
+                    .get(id, () -> getUncachedConfigurationDTO(id));
+            return configuration.copy();
+        } catch (final Cache.ValueRetrievalException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
 
-        Configuration config = configurationRepository
-                .findById(id)
-                .orElseThrow(() ->
-                        new ResponseStatusException(
-                                HttpStatus.NOT_FOUND,
-                                String.format("There is no configuration with id %s.", id)
-                        )
-                );
-        config.setVolumeLevel(volumeLevel);
+    /**
+     * Reads the version of a configuration with a single lookup by id, without loading the questions.
+     *
+     * @param id the id of the configuration
+     * @return the version of the configuration
+     * @throws ResponseStatusException  when configuration by id could not be found
+     * @throws IllegalArgumentException if at least one of the arguments is null
+     */
+    public long getConfigurationVersion(final UUID id) {
+        if (id == null) {
+            throw new IllegalArgumentException("id is null");
+        }
         return configurationRepository
-                .findById(id)
+                .findVersionById(id)
                 .orElseThrow(() ->
                         new ResponseStatusException(
                                 HttpStatus.NOT_FOUND,
@@ -106,6 +158,71 @@ public class ConfigService {
                 );
     }
 
+    /**
+     * Starts to get the volume level of the user from the overworld-backend, see {@link VolumeLevelCache}.
+     *
+     * @param userId             the id of the user, verified from the access token
+     * @param accessToken        the users access token
+     * @param refreshVolumeLevel whether a cached volume level should be ignored
+     * @return the volume level of the user, completed once it is retrieved
+     */
+    public CompletableFuture<Integer> getVolumeLevel(
+            final String userId,
+            final String accessToken,
+            final boolean refreshVolumeLevel
+    ) {
+        return volumeLevelCache.getVolumeLevel(userId, accessToken, refreshVolumeLevel);
+    }
+
+    /**
+     * Search a configuration by given id and combine it with the volume level from overworld-backend.
+     * The volume level is retrieved concurrently to loading the configuration, it has to be started before.
+     *
+     * @param id          the id of the configuration searching for
+     * @param volumeLevel the volume level of the user, see {@link #getVolumeLevel}
+     * @return the found configuration as DTO with the volume level of the user
+     * @throws ResponseStatusException  when configuration by configurationName could not be found
+     * @throws IllegalArgumentException if at least one of the arguments is null
+     */
+    public ConfigurationDTO getAllConfigurations(final UUID id, final CompletableFuture<Integer> volumeLevel) {
+        if (id == null || volumeLevel == null) {
+            throw new IllegalArgumentException("id or volumeLevel is null");
+        }
+        final ConfigurationDTO configuration = getConfigurationDTO(id);
+        configuration.setVolumeLevel(volumeLevel.join());
+        return configuration;
+    }
+
+    /**
+     * Returns a page of configuration summaries ordered by id, without loading the questions
+     *
+     * @param after the id after which the page starts, null for the first page
+     * @param limit the maximum number of configurations
+     * @return the configuration summaries
+     */
+    public List<ConfigurationSummaryDTO> getConfigurationSummaries(final UUID after, final int limit) {
+        final Pageable pageable = PageRequest.of(0, limit);
+        return after == null
+                ? configurationRepository.findSummaries(pageable)
+                : configurationRepository.findSummariesAfter(after, pageable);
+    }
+
+    /**
+     * Returns a page of configurations with their questions ordered by id
+     *
+     * @param after the id after which the page starts, null for the first page
+     * @param limit the maximum number of configurations
+     * @return the configurations as DTOs
+     */
+    public List<ConfigurationDTO> getConfigurationDTOs(final UUID after, final int limit) {
+        final Pageable pageable = PageRequest.of(0, limit);
+        return configurationMapper.configurationsToConfigurationDTOs(
+                after == null
+                        ? configurationRepository.findAllByOrderByIdAsc(pageable)
+                        : configurationRepository.findByIdGreaterThanOrderByIdAsc(after, pageable)
+        );
+    }
+
     /**
      * Save a configuration
      *
@@ -124,7 +241,10 @@ public class ConfigService {
     }
 
     /**
-     * Update a configuration
+     * Update a configuration.
+     * The questions are compared to the persisted questions by id and, for questions without a known id, by content.
+     * Only changed questions are updated and only new questions are inserted. Removed questions are deleted, unless
+     * they are referenced by a game result, then they are only removed from the configuration.
      *
      * @param id               the id of the configuration that should be updated
      * @param configurationDTO configuration that should be updated
@@ -132,14 +252,103 @@ public class ConfigService {
      * @throws ResponseStatusException  when configuration with the id does not exist
      * @throws IllegalArgumentException if at least one of the arguments is null
      */
+    @CacheEvict(cacheNames = CacheConfiguration.CONFIGURATION_CACHE, key = "#id")
     public ConfigurationDTO updateConfiguration(final UUID id, final @Valid ConfigurationDTO configurationDTO) {
         if (id == null || configurationDTO == null) {
             throw new IllegalArgumentException("id or configurationDTO is null");
         }
         final Configuration configuration = getConfiguration(id);
-        configuration.setQuestions(questionMapper.questionDTOsToQuestions(configurationDTO.getQuestions()));
-        final Configuration updatedConfiguration = configurationRepository.save(configuration);
-        return configurationMapper.configurationToConfigurationDTO(updatedConfiguration);
+        final Map<UUID, Question> removedQuestions = new HashMap<>();
+        configuration.getQuestions().forEach(question -> removedQuestions.put(question.getId(), question));
+        final Set<QuestionDTO> questionDTOs = configurationDTO.getQuestions() != null
+                ? configurationDTO.getQuestions()
+                : Set.of();
+        boolean modified = false;
+
+        final List<QuestionDTO> questionDTOsWithoutKnownId = new ArrayList<>();
+        for (final QuestionDTO questionDTO : questionDTOs) {
+            final Question question = questionDTO.getId() != null ? removedQuestions.remove(questionDTO.getId()) : null;
+            if (question == null) {
+                questionDTOsWithoutKnownId.add(questionDTO);
+            } else {
+                modified |= updateQuestion(question, questionDTO);
+            }
+        }
+
+        final Map<QuestionContent, Deque<Question>> removedQuestionsByContent = new HashMap<>();
+        removedQuestions
+                .values()
+                .forEach(question ->
+                        removedQuestionsByContent
+                                .computeIfAbsent(QuestionContent.of(question), content -> new ArrayDeque<>())
+                                .add(question)
+                );
+        for (final QuestionDTO questionDTO : questionDTOsWithoutKnownId) {
+            final Deque<Question> sameContent = removedQuestionsByContent.get(QuestionContent.of(questionDTO));
+            if (sameContent != null && !sameContent.isEmpty()) {
+                removedQuestions.remove(sameContent.poll().getId());
+                continue;
+            }
+            final Question question = questionMapper.questionDTOToQuestion(questionDTO);
+            question.setId(UUID.randomUUID());
+            configuration.addQuestion(questionRepository.save(question));
+            modified = true;
+        }
+
+        if (!removedQuestions.isEmpty()) {
+            configuration.getQuestions().removeIf(question -> removedQuestions.containsKey(question.getId()));
+            modified = true;
+        }
+        if (!modified) {
+            return configurationMapper.configurationToConfigurationDTO(configuration);
+        }
+        // marked before the queries below flush the changes, so the version is increased only once
+        configuration.markModified();
+        if (!removedQuestions.isEmpty()) {
+            final Set<UUID> referencedIds = questionRepository.findIdsReferencedByQuestionResults(
+                    removedQuestions.keySet()
+            );
+            final List<Question> deletedQuestions = removedQuestions
+                    .values()
+                    .stream()
+                    .filter(question -> !referencedIds.contains(question.getId()))
+                    .toList();
+            deleteQuestionStatistics(deletedQuestions.stream().map(Question::getId).toList());
+            questionRepository.deleteAll(deletedQuestions);
+        }
+        // increases the version, so the returned configuration has the version of the change
+        configurationRepository.flush();
+        eventPublisher.publishEvent(new ConfigurationChangedEvent(id));
+        return configurationMapper.configurationToConfigurationDTO(configuration);
+    }
+
+    /**
+     * Applies the content of the DTO to the persisted question, only changed fields and wrong answers are written.
+     *
+     * @return whether the question was changed
+     */
+    private boolean updateQuestion(final Question question, final QuestionDTO questionDTO) {
+        boolean changed = false;
+        if (!Objects.equals(question.getText(), questionDTO.getText())) {
+            question.setText(questionDTO.getText());
+            changed = true;
+        }
+        if (!Objects.equals(question.getCorrectAnswer(), questionDTO.getCorrectAnswer())) {
+            question.setCorrectAnswer(questionDTO.getCorrectAnswer());
+            changed = true;
+        }
+        final Set<String> wrongAnswers = questionDTO.getWrongAnswers() != null
+                ? questionDTO.getWrongAnswers()
+                : Set.of();
+        if (question.getWrongAnswers() == null) {
+            question.setWrongAnswers(new HashSet<>(wrongAnswers));
+            changed = true;
+        } else if (!question.getWrongAnswers().equals(wrongAnswers)) {
+            question.getWrongAnswers().retainAll(wrongAnswers);
+            question.getWrongAnswers().addAll(wrongAnswers);
+            changed = true;
+        }
+        return changed;
     }
 
     /**
@@ -150,12 +359,15 @@ public class ConfigService {
      * @throws ResponseStatusException  when configuration with the id does not exist
      * @throws IllegalArgumentException if at least one of the arguments is null
      */
+    @CacheEvict(cacheNames = CacheConfiguration.CONFIGURATION_CACHE, key = "#id")
     public ConfigurationDTO deleteConfiguration(final UUID id) {
         if (id == null) {
             throw new IllegalArgumentException("id is null");
         }
         final Configuration configuration = getConfiguration(id);
+        deleteQuestionStatistics(configuration.getQuestions().stream().map(Question::getId).toList());
         configurationRepository.delete(configuration);
+        eventPublisher.publishEvent(new ConfigurationChangedEvent(id));
         return configurationMapper.configurationToConfigurationDTO(configuration);
     }
 
@@ -168,14 +380,19 @@ public class ConfigService {
      * @throws ResponseStatusException  when configuration with the id does not exist
      * @throws IllegalArgumentException if at least one of the arguments is null
      */
+    @CacheEvict(cacheNames = CacheConfiguration.CONFIGURATION_CACHE, key = "#id")
     public QuestionDTO addQuestionToConfiguration(final UUID id, final @Valid QuestionDTO questionDTO) {
         if (id == null || questionDTO == null) {
             throw new IllegalArgumentException("id or questionDTO is null");
         }
         final Configuration configuration = getConfiguration(id);
-        final Question question = questionRepository.save(questionMapper.questionDTOToQuestion(questionDTO));
+        final Question question = questionMapper.questionDTOToQuestion(questionDTO);
+        question.setId(UUID.randomUUID());
+        questionRepository.save(question);
         configuration.addQuestion(question);
+        configuration.markModified();
         configurationRepository.save(configuration);
+        eventPublisher.publishEvent(new ConfigurationChangedEvent(id));
         return questionMapper.questionToQuestionDTO(question);
     }
 
@@ -188,6 +405,7 @@ public class ConfigService {
      * @throws ResponseStatusException  when configuration with the id or question with id does not exist
      * @throws IllegalArgumentException if at least one of the arguments is null
      */
+    @CacheEvict(cacheNames = CacheConfiguration.CONFIGURATION_CACHE, key = "#id")
     public QuestionDTO removeQuestionFromConfiguration(final UUID id, final UUID questionId) {
         if (id == null || questionId == null) {
             throw new IllegalArgumentException("id or questionId is null");
@@ -201,8 +419,11 @@ public class ConfigService {
                         )
                 );
         configuration.removeQuestion(question);
+        configuration.markModified();
         configurationRepository.save(configuration);
+        deleteQuestionStatistics(List.of(question.getId()));
         questionRepository.delete(question);
+        eventPublisher.publishEvent(new ConfigurationChangedEvent(id));
         return questionMapper.questionToQuestionDTO(question);
     }
 
@@ -216,6 +437,7 @@ public class ConfigService {
      * @throws ResponseStatusException  when configuration with the id or question with id does not exist
      * @throws IllegalArgumentException if at least one of the arguments is null
      */
+    @CacheEvict(cacheNames = CacheConfiguration.CONFIGURATION_CACHE, key = "#id")
     public QuestionDTO updateQuestionFromConfiguration(
             final UUID id,
             final UUID questionId,
@@ -225,16 +447,18 @@ public class ConfigService {
             throw new IllegalArgumentException("id or questionId or questionDTO is null");
         }
         final Configuration configuration = getConfiguration(id);
-        if (getQuestionInConfiguration(questionId, configuration).isEmpty()) {
-            throw new ResponseStatusException(
-                    HttpStatus.NOT_FOUND,
-                    String.format("Question with ID %s does not exist in configuration %s.", questionId, configuration)
-            );
+        final Question question = getQuestionInConfiguration(questionId, configuration)
+                .orElseThrow(() ->
+                        new ResponseStatusException(
+                                HttpStatus.NOT_FOUND,
+                                String.format("Question with ID %s does not exist in configuration %s.", questionId, configuration)
+                        )
+                );
+        if (updateQuestion(question, questionDTO)) {
+            configuration.markModified();
         }
-        final Question question = questionMapper.questionDTOToQuestion(questionDTO);
-        question.setId(questionId);
-        final Question savedQuestion = questionRepository.save(question);
-        return questionMapper.questionToQuestionDTO(savedQuestion);
+        eventPublisher.publishEvent(new ConfigurationChangedEvent(id));
+        return questionMapper.questionToQuestionDTO(question);
     }
 
     /**
@@ -242,19 +466,72 @@ public class ConfigService {
      *
      * @param id the id of the configuration to be cloned
      * @return the new id of the cloned configuration
+     * @throws ResponseStatusException  (404) when the configuration does not exist
+     * @throws IllegalArgumentException if at least one of the arguments is null
      */
     public UUID cloneConfiguration(final UUID id) {
-        Configuration config = configurationRepository
-                .findById(id)
-                .orElseThrow(() ->
-                        new ResponseStatusException(
-                                HttpStatus.NOT_FOUND,
-                                String.format("Configuration with id %s not found", id)
-                        )
-                );
-        Configuration cloneConfig = config.clone();
-        cloneConfig = configurationRepository.save(cloneConfig);
-        return cloneConfig.getId();
+        return cloneConfiguration(id, 1).get(0);
+    }
+
+    /**
+     * Clones the configuration with the given id multiple times.
+     * The configuration is copied in the database, without loading its questions.
+     *
+     * @param id    the id of the configuration to be cloned
+     * @param count the number of clones
+     * @return the ids of the cloned configurations
+     * @throws ResponseStatusException (404) when the configuration does not exist,
+     *                                 (400) when the count is not between 1 and {@link Constants#MAX_CLONE_COUNT}
+     * @throws IllegalArgumentException if at least one of the arguments is null
+     */
+    public List<UUID> cloneConfiguration(final UUID id, final int count) {
+        if (id == null) {
+            throw new IllegalArgumentException("id is null");
+        }
+        if (count < 1 || count > Constants.MAX_CLONE_COUNT) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    String.format("count must be between 1 and %s", Constants.MAX_CLONE_COUNT)
+            );
+        }
+        if (!configurationRepository.existsById(id)) {
+            throw new ResponseStatusException(
+                    HttpStatus.NOT_FOUND,
+                    String.format("Configuration with id %s not found", id)
+            );
+        }
+        return configurationRepository.cloneConfiguration(id, count).stream().map(UUID::fromString).toList();
+    }
+
+    /**
+     * Deletes the statistics of the questions that are deleted in the current transaction, before the questions.
+     * A game end that adds to these statistics concurrently either commits first, then deleting its questions fails
+     * on the foreign key of its question results, or its question results fail on it and it is rolled back.
+     */
+    private void deleteQuestionStatistics(final Collection<UUID> questionIds) {
+        if (questionIds.isEmpty()) {
+            return;
+        }
+        questionStatisticRepository.deleteByQuestionIds(questionIds);
+        answerStatisticRepository.deleteByQuestionIds(questionIds);
+    }
+
+    private record QuestionContent(String text, String correctAnswer, Set<String> wrongAnswers) {
+        static QuestionContent of(final Question question) {
+            return new QuestionContent(
+                    question.getText(),
+                    question.getCorrectAnswer(),
+                    question.getWrongAnswers() != null ? Set.copyOf(question.getWrongAnswers()) : Set.of()
+            );
+        }
+
+        static QuestionContent of(final QuestionDTO questionDTO) {
+            return new QuestionContent(
+                    questionDTO.getText(),
+                    questionDTO.getCorrectAnswer(),
+                    questionDTO.getWrongAnswers() != null ? Set.copyOf(questionDTO.getWrongAnswers()) : Set.of()
+            );
+        }
     }
 
     /**
@@ -0,0 +1,11 @@
+package de.unistuttgart.towerdefensebackend.service;
+
+import java.util.UUID;
+
+/**
+ * Published when a configuration or one of its questions is changed or the configuration is deleted.
+ * Listeners that act after the commit only see the committed change.
+ *
+ * @param id the id of the changed configuration
+ */
+public record ConfigurationChangedEvent(UUID id) {}
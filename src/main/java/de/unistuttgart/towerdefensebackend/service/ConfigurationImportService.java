@@ -0,0 +1,118 @@
+package de.unistuttgart.towerdefensebackend.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.unistuttgart.towerdefensebackend.data.BatchItemResultDTO;
+import de.unistuttgart.towerdefensebackend.data.ConfigurationDTO;
+import de.unistuttgart.towerdefensebackend.data.QuestionDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+/**
+ * This service imports configurations that were exported by
+ * {@link ConfigurationStreamingService#writeAllConfigurations(java.io.OutputStream)}.
+ * The configurations are read line by line and every configuration is saved in its own transaction with new ids.
+ * The outcome of each line is written as NDJSON, so the memory usage does not depend on the number of configurations.
+ */
+@Service
+@Slf4j
+public class ConfigurationImportService {
+
+    static final int FLUSH_INTERVAL = 100;
+
+    @Autowired
+    ConfigService configService;
+
+    @Autowired
+    Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Imports the configurations of the input, one configuration per line, and writes the outcome of each line
+     * to the output. The imported configurations and their questions get new ids.
+     *
+     * @param inputStream  the configurations to import as NDJSON
+     * @param outputStream the stream the outcome of each line is written to as NDJSON
+     * @throws IOException if the input cannot be read or the outcome cannot be written
+     */
+    public void importConfigurations(final InputStream inputStream, final OutputStream outputStream)
+            throws IOException {
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            int index = 0;
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                generator.writeObject(importConfiguration(index++, line));
+                if (index % FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+            if (index > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    private BatchItemResultDTO<ConfigurationDTO> importConfiguration(final int index, final String line) {
+        final ConfigurationDTO configurationDTO;
+        try {
+            configurationDTO = objectMapper.readValue(line, ConfigurationDTO.class);
+        } catch (final JsonProcessingException exception) {
+            return new BatchItemResultDTO<>(
+                    index,
+                    HttpStatus.BAD_REQUEST.value(),
+                    List.of("invalid configuration: " + exception.getOriginalMessage()),
+                    null
+            );
+        }
+        final List<String> errors = new ArrayList<>();
+        for (final ConstraintViolation<ConfigurationDTO> violation : validator.validate(configurationDTO)) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        if (!errors.isEmpty()) {
+            return new BatchItemResultDTO<>(index, HttpStatus.BAD_REQUEST.value(), errors, configurationDTO);
+        }
+        configurationDTO.setId(null);
+        if (configurationDTO.getQuestions() == null) {
+            configurationDTO.setQuestions(new HashSet<>());
+        }
+        for (final QuestionDTO questionDTO : configurationDTO.getQuestions()) {
+            questionDTO.setId(null);
+        }
+        try {
+            final ConfigurationDTO savedConfiguration = configService.saveConfiguration(configurationDTO);
+            return new BatchItemResultDTO<>(index, HttpStatus.CREATED.value(), List.of(), savedConfiguration);
+        } catch (final RuntimeException exception) {
+            log.error("Configuration in line {} could not be imported", index, exception);
+            return new BatchItemResultDTO<>(
+                    index,
+                    HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                    List.of("the configuration could not be saved"),
+                    configurationDTO
+            );
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package de.unistuttgart.towerdefensebackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.unistuttgart.towerdefensebackend.data.ConfigurationDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.annotation.PostConstruct;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * This service keeps the serialized response of the most recently requested configurations in direct memory,
+ * so a configuration is mapped and serialized only once per version and does not occupy the heap in between.
+ * <p>
+ * A snapshot belongs to one version of a configuration. A request for another version is a miss, the snapshot of the
+ * newer version replaces the older one. The least recently used snapshots are evicted as soon as the snapshots
+ * together exceed the capacity. The direct memory of an evicted snapshot is released by the garbage collector,
+ * so -XX:MaxDirectMemorySize should leave room above the capacity.
+ */
+@Service
+@Slf4j
+public class ConfigurationSnapshotStore {
+
+    @Autowired
+    private ConfigService configService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${configuration.snapshot.capacity:32MB}")
+    private DataSize capacity;
+
+    @Value("${configuration.snapshot.gzip:false}")
+    private boolean gzip;
+
+    private final Map<UUID, Snapshot> snapshots = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long usedBytes;
+
+    private Counter hits;
+
+    private Counter misses;
+
+    @PostConstruct
+    void initMetrics() {
+        Gauge
+                .builder("configuration.snapshots.size", this, store -> store.snapshotCount())
+                .description("number of configuration snapshots in direct memory")
+                .register(meterRegistry);
+        Gauge
+                .builder("configuration.snapshots.bytes", this, store -> store.usedBytes())
+                .description("direct memory used by the configuration snapshots")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        hits = Counter.builder("configuration.snapshots.requests").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("configuration.snapshots.requests").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * Returns the snapshot of the configuration. If there is no snapshot of the version, the configuration is loaded
+     * from the database, serialized and stored. The loaded configuration is not put into the configuration cache,
+     * so it is held in the heap only while it is serialized. A snapshot that is older than the version is returned
+     * but not stored.
+     *
+     * @param id      the id of the configuration
+     * @param version the current version of the configuration
+     * @return the snapshot of the configuration, its version is newer than the requested one if the configuration
+     * was modified in the meantime
+     * @throws org.springframework.web.server.ResponseStatusException (404) when the configuration does not exist
+     * @throws IOException                                             if the configuration cannot be serialized
+     */
+    public Snapshot getSnapshot(final UUID id, final long version) throws IOException {
+        final Snapshot cached = get(id, version);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        final ConfigurationDTO configuration = configService.getUncachedConfigurationDTO(id);
+        final Snapshot snapshot = serialize(configuration);
+        if (configuration.getVersion() >= version) {
+            put(id, snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Removes the snapshot of the changed or deleted configuration once the change is committed,
+     * so its direct memory can be released before it is replaced or evicted.
+     *
+     * @param event the event of the changed configuration
+     */
+    @TransactionalEventListener
+    public synchronized void evict(final ConfigurationChangedEvent event) {
+        final Snapshot removed = snapshots.remove(event.id());
+        if (removed != null) {
+            usedBytes -= removed.length();
+        }
+    }
+
+    synchronized int snapshotCount() {
+        return snapshots.size();
+    }
+
+    synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+    private synchronized Snapshot get(final UUID id, final long version) {
+        final Snapshot snapshot = snapshots.get(id);
+        return snapshot != null && snapshot.version() == version ? snapshot : null;
+    }
+
+    /**
+     * Stores the snapshot unless a snapshot of a newer version was stored concurrently
+     * and evicts the least recently used snapshots until the capacity is kept.
+     */
+    private synchronized void put(final UUID id, final Snapshot snapshot) {
+        if (snapshot.length() > capacity.toBytes()) {
+            log.warn("snapshot of configuration {} with {} bytes exceeds the capacity", id, snapshot.length());
+            return;
+        }
+        final Snapshot previous = snapshots.get(id);
+        if (previous != null) {
+            if (previous.version() > snapshot.version()) {
+                return;
+            }
+            usedBytes -= previous.length();
+        }
+        snapshots.put(id, snapshot);
+        usedBytes += snapshot.length();
+        final Iterator<Snapshot> leastRecentlyUsed = snapshots.values().iterator();
+        while (usedBytes > capacity.toBytes()) {
+            usedBytes -= leastRecentlyUsed.next().length();
+            leastRecentlyUsed.remove();
+        }
+    }
+
+    private Snapshot serialize(final ConfigurationDTO configuration) throws IOException {
+        byte[] content = objectMapper.writeValueAsBytes(configuration);
+        if (gzip) {
+            final ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 4);
+            try (GZIPOutputStream outputStream = new GZIPOutputStream(compressed)) {
+                outputStream.write(content);
+            }
+            content = compressed.toByteArray();
+        }
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(content.length).put(content).flip();
+        return new Snapshot(configuration.getVersion(), buffer.asReadOnlyBuffer(), gzip);
+    }
+
+    /**
+     * The serialized configuration of one version, in direct memory.
+     *
+     * @param version the version of the configuration
+     * @param content the serialized configuration, gzip compressed if {@code gzipped} is set
+     * @param gzipped whether the content is gzip compressed
+     */
+    public record Snapshot(long version, ByteBuffer content, boolean gzipped) {
+        /**
+         * @return the number of bytes of the content
+         */
+        public int length() {
+            return content.remaining();
+        }
+
+        /**
+         * Writes the content to the output stream.
+         *
+         * @param outputStream the stream the content is written to
+         * @param decompress   whether gzip compressed content should be written uncompressed
+         * @throws IOException if the content cannot be written
+         */
+        public void writeTo(final OutputStream outputStream, final boolean decompress) throws IOException {
+            if (gzipped && decompress) {
+                try (InputStream inputStream = new GZIPInputStream(new ByteBufferInputStream(content.duplicate()))) {
+                    inputStream.transferTo(outputStream);
+                }
+            } else {
+                Channels.newChannel(outputStream).write(content.duplicate());
+            }
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            final int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+    }
+}
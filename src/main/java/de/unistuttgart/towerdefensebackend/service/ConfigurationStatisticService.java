@@ -0,0 +1,381 @@
+package de.unistuttgart.towerdefensebackend.service;
+
+import de.unistuttgart.towerdefensebackend.data.AnswerStatistic;
+import de.unistuttgart.towerdefensebackend.data.AnswerStatisticDTO;
+import de.unistuttgart.towerdefensebackend.data.ConfigurationResultRollup;
+import de.unistuttgart.towerdefensebackend.data.ConfigurationStatisticDTO;
+import de.unistuttgart.towerdefensebackend.data.GameResult;
+import de.unistuttgart.towerdefensebackend.data.QuestionDTO;
+import de.unistuttgart.towerdefensebackend.data.QuestionResult;
+import de.unistuttgart.towerdefensebackend.data.QuestionStatistic;
+import de.unistuttgart.towerdefensebackend.data.QuestionStatisticDTO;
+import de.unistuttgart.towerdefensebackend.repositories.AnswerStatisticRepository;
+import de.unistuttgart.towerdefensebackend.repositories.ConfigurationPlayerRepository;
+import de.unistuttgart.towerdefensebackend.repositories.ConfigurationResultRollupRepository;
+import de.unistuttgart.towerdefensebackend.repositories.QuestionStatisticRepository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * This service maintains the per-configuration rollups and the per-question counters of the game results and reads
+ * the statistics from them.
+ * Both are updated in the transaction that saves the game results, so reading the statistics does not depend on the
+ * number of saved game results.
+ * Adding game results takes the write lock shared, a rebuild takes it exclusively, so no game result is added
+ * between deleting and recomputing the rollups.
+ */
+@Service
+@Slf4j
+@Transactional
+public class ConfigurationStatisticService {
+
+    /**
+     * Key of the advisory lock that makes sure only one instance rebuilds the rollups at a time.
+     */
+    static final long REBUILD_LOCK_KEY = 0x746f776572L;
+
+    /**
+     * Key of the advisory lock that keeps game results from being added to the rollups while they are rebuilt.
+     */
+    static final long WRITE_LOCK_KEY = 0x726f6c6c7570L;
+
+    /**
+     * Records that the players played the configurations, in the order of the configuration and player ids.
+     * Returns the configuration of every player that played it for the first time.
+     */
+    private static final String INSERT_PLAYERS =
+            "INSERT INTO configuration_player (configuration_id, player_id) " +
+            "SELECT * FROM unnest(?, ?) AS player(configuration_id, player_id) ORDER BY configuration_id, player_id " +
+            "ON CONFLICT DO NOTHING RETURNING configuration_id";
+
+    /**
+     * Adds the deltas to the counters of many questions, in the order of the question ids.
+     */
+    private static final String ADD_QUESTION_STATISTICS =
+            "INSERT INTO question_statistic (question_id, correct_count, wrong_count) " +
+            "SELECT * FROM unnest(?, ?, ?) AS delta(question_id, correct_count, wrong_count) ORDER BY question_id " +
+            "ON CONFLICT (question_id) DO UPDATE SET " +
+            "correct_count = question_statistic.correct_count + EXCLUDED.correct_count, " +
+            "wrong_count = question_statistic.wrong_count + EXCLUDED.wrong_count";
+
+    /**
+     * Adds the deltas to the counters of many answers, in the order of the question ids and answers.
+     */
+    private static final String ADD_ANSWER_STATISTICS =
+            "INSERT INTO answer_statistic (question_id, answer, chosen_count) " +
+            "SELECT * FROM unnest(?, ?, ?) AS delta(question_id, answer, chosen_count) ORDER BY question_id, answer " +
+            "ON CONFLICT (question_id, answer) " +
+            "DO UPDATE SET chosen_count = answer_statistic.chosen_count + EXCLUDED.chosen_count";
+
+    @Autowired
+    private ConfigurationResultRollupRepository rollupRepository;
+
+    @Autowired
+    private ConfigurationPlayerRepository configurationPlayerRepository;
+
+    @Autowired
+    private QuestionStatisticRepository questionStatisticRepository;
+
+    @Autowired
+    private AnswerStatisticRepository answerStatisticRepository;
+
+    @Autowired
+    private ConfigService configService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${statistics.rollup.stripes:8}")
+    private int stripes;
+
+    /**
+     * Adds the given saved game results to the rollups of their configurations and to the counters of their questions.
+     * Waits while the rollups are rebuilt.
+     *
+     * @param results the game results that are saved in the current transaction
+     */
+    public void addGameResults(final Collection<GameResult> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        rollupRepository.lockShared(WRITE_LOCK_KEY);
+        addToRollups(results);
+        addToQuestionStatistics(results);
+    }
+
+    /**
+     * Sums up the results per configuration first, so each configuration needs a single rollup upsert.
+     * The players are recorded with a single statement, the players that are new to a configuration are its
+     * additional distinct players.
+     * Players and rollups are written in the order of their keys, so concurrent transactions cannot deadlock.
+     */
+    private void addToRollups(final Collection<GameResult> results) {
+        final Map<UUID, ConfigurationResultRollup> deltas = new TreeMap<>();
+        final Map<UUID, Set<String>> players = new TreeMap<>();
+        for (final GameResult result : results) {
+            final ConfigurationResultRollup delta = deltas.computeIfAbsent(
+                    result.getConfigurationAsUUID(),
+                    configurationId -> new ConfigurationResultRollup(configurationId, 0, 0, 0, 0, 0, 0)
+            );
+            delta.setPlays(delta.getPlays() + 1);
+            delta.setScoreSum(delta.getScoreSum() + result.getScore());
+            delta.setCorrectAnswerSum(delta.getCorrectAnswerSum() + result.getCorrectAnswerCount());
+            delta.setWrongAnswerSum(delta.getWrongAnswerSum() + result.getWrongAnswerCount());
+            players.computeIfAbsent(result.getConfigurationAsUUID(), id -> new TreeSet<>()).add(result.getPlayerId());
+        }
+        final List<UUID> configurationIds = new ArrayList<>();
+        final List<String> playerIds = new ArrayList<>();
+        players.forEach((configurationId, playerIdsOfConfiguration) ->
+                playerIdsOfConfiguration.forEach(playerId -> {
+                    configurationIds.add(configurationId);
+                    playerIds.add(playerId);
+                })
+        );
+        jdbcTemplate
+                .query(
+                        withArrays(
+                                INSERT_PLAYERS,
+                                new SqlArray("uuid", configurationIds.toArray()),
+                                new SqlArray("varchar", playerIds.toArray())
+                        ),
+                        (resultSet, row) -> resultSet.getObject(1, UUID.class)
+                )
+                .forEach(configurationId -> {
+                    final ConfigurationResultRollup delta = deltas.get(configurationId);
+                    delta.setDistinctPlayers(delta.getDistinctPlayers() + 1);
+                });
+        deltas
+                .values()
+                .forEach(delta ->
+                        rollupRepository.add(
+                                delta.getConfigurationId(),
+                                ThreadLocalRandom.current().nextInt(stripes),
+                                delta.getPlays(),
+                                delta.getScoreSum(),
+                                delta.getCorrectAnswerSum(),
+                                delta.getWrongAnswerSum(),
+                                delta.getDistinctPlayers()
+                        )
+                );
+    }
+
+    /**
+     * Sums up the answers per question and per chosen answer first, then adds them with one upsert per table,
+     * independent of the number of answered questions.
+     * The counters are updated in the order of their keys, so concurrent transactions cannot deadlock.
+     */
+    private void addToQuestionStatistics(final Collection<GameResult> results) {
+        final Map<UUID, QuestionStatistic> questionDeltas = new TreeMap<>();
+        final Map<AnswerStatistic.Key, Long> answerDeltas = new TreeMap<>();
+        for (final GameResult result : results) {
+            for (final QuestionResult questionResult : result.getCorrectAnsweredQuestions()) {
+                final QuestionStatistic delta = addAnswer(questionDeltas, answerDeltas, questionResult);
+                delta.setCorrectCount(delta.getCorrectCount() + 1);
+            }
+            for (final QuestionResult questionResult : result.getWrongAnsweredQuestions()) {
+                final QuestionStatistic delta = addAnswer(questionDeltas, answerDeltas, questionResult);
+                delta.setWrongCount(delta.getWrongCount() + 1);
+            }
+        }
+        if (questionDeltas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(
+                withArrays(
+                        ADD_QUESTION_STATISTICS,
+                        new SqlArray("uuid", questionDeltas.keySet().toArray()),
+                        new SqlArray(
+                                "bigint",
+                                questionDeltas.values().stream().map(QuestionStatistic::getCorrectCount).toArray()
+                        ),
+                        new SqlArray(
+                                "bigint",
+                                questionDeltas.values().stream().map(QuestionStatistic::getWrongCount).toArray()
+                        )
+                )
+        );
+        jdbcTemplate.update(
+                withArrays(
+                        ADD_ANSWER_STATISTICS,
+                        new SqlArray(
+                                "uuid",
+                                answerDeltas.keySet().stream().map(AnswerStatistic.Key::getQuestionId).toArray()
+                        ),
+                        new SqlArray(
+                                "varchar",
+                                answerDeltas.keySet().stream().map(AnswerStatistic.Key::getAnswer).toArray()
+                        ),
+                        new SqlArray("bigint", answerDeltas.values().toArray())
+                )
+        );
+    }
+
+    /**
+     * Counts the chosen answer of the question result.
+     *
+     * @return the delta of the question of the question result
+     */
+    private QuestionStatistic addAnswer(
+            final Map<UUID, QuestionStatistic> questionDeltas,
+            final Map<AnswerStatistic.Key, Long> answerDeltas,
+            final QuestionResult questionResult
+    ) {
+        final UUID questionId = questionResult.getQuestion().getId();
+        answerDeltas.merge(new AnswerStatistic.Key(questionId, questionResult.getAnswer()), 1L, Long::sum);
+        return questionDeltas.computeIfAbsent(questionId, id -> new QuestionStatistic(id, 0, 0));
+    }
+
+    /**
+     * Returns the statistics of a configuration by summing up the stripes of its rollup.
+     *
+     * @param configurationId the id of the configuration
+     * @return the statistics of the configuration, with zero plays if no game was played yet
+     */
+    @Transactional(readOnly = true)
+    public ConfigurationStatisticDTO getStatistic(final UUID configurationId) {
+        final List<ConfigurationResultRollup> rollups = rollupRepository.findByConfigurationId(configurationId);
+        long plays = 0;
+        long scoreSum = 0;
+        long correctAnswerSum = 0;
+        long wrongAnswerSum = 0;
+        long distinctPlayers = 0;
+        for (final ConfigurationResultRollup rollup : rollups) {
+            plays += rollup.getPlays();
+            scoreSum += rollup.getScoreSum();
+            correctAnswerSum += rollup.getCorrectAnswerSum();
+            wrongAnswerSum += rollup.getWrongAnswerSum();
+            distinctPlayers += rollup.getDistinctPlayers();
+        }
+        return new ConfigurationStatisticDTO(
+                configurationId,
+                plays,
+                average(scoreSum, plays),
+                average(correctAnswerSum, plays),
+                average(wrongAnswerSum, plays),
+                distinctPlayers
+        );
+    }
+
+    /**
+     * Returns how the questions of a configuration were answered.
+     * Only the counters of the questions of the configuration are read, independent of the number of plays.
+     *
+     * @param configurationId the id of the configuration
+     * @return the statistics of the questions of the configuration, the most often incorrectly answered first
+     * @throws ResponseStatusException (404) if the configuration with its id does not exist
+     */
+    @Transactional(readOnly = true)
+    public List<QuestionStatisticDTO> getQuestionStatistics(final UUID configurationId) {
+        final Set<QuestionDTO> questions = configService.getConfigurationDTO(configurationId).getQuestions();
+        final Set<UUID> questionIds = questions.stream().map(QuestionDTO::getId).collect(Collectors.toSet());
+        final Map<UUID, QuestionStatistic> questionStatistics = questionStatisticRepository
+                .findAllById(questionIds)
+                .stream()
+                .collect(Collectors.toMap(QuestionStatistic::getQuestionId, Function.identity()));
+        final Map<UUID, List<AnswerStatisticDTO>> answerStatistics = new HashMap<>();
+        answerStatisticRepository
+                .findByQuestionIdInOrderByChosenCountDesc(questionIds)
+                .forEach(answerStatistic ->
+                        answerStatistics
+                                .computeIfAbsent(answerStatistic.getQuestionId(), id -> new ArrayList<>())
+                                .add(new AnswerStatisticDTO(answerStatistic.getAnswer(), answerStatistic.getChosenCount()))
+                );
+
+        final List<QuestionStatisticDTO> statistics = new ArrayList<>(questions.size());
+        for (final QuestionDTO question : questions) {
+            final QuestionStatistic questionStatistic = questionStatistics.getOrDefault(
+                    question.getId(),
+                    new QuestionStatistic(question.getId(), 0, 0)
+            );
+            statistics.add(
+                    new QuestionStatisticDTO(
+                            question.getId(),
+                            question.getText(),
+                            questionStatistic.getCorrectCount(),
+                            questionStatistic.getWrongCount(),
+                            answerStatistics.getOrDefault(question.getId(), List.of())
+                    )
+            );
+        }
+        statistics.sort(Comparator.comparingLong(QuestionStatisticDTO::getWrongCount).reversed());
+        return statistics;
+    }
+
+    /**
+     * Recomputes all rollups and question counters from the saved game results, e.g. to correct them after a manual data change.
+     * Runs with the configured cron expression, which is disabled by default.
+     * If another instance is already rebuilding the rollups, nothing is done.
+     * The rebuild waits for the transactions that are adding game results and blocks new ones until it is committed,
+     * so their results are counted exactly once.
+     */
+    @Scheduled(cron = "${statistics.rollup.rebuild-cron:-}")
+    public void rebuildRollups() {
+        if (!rollupRepository.tryLock(REBUILD_LOCK_KEY)) {
+            log.info("the rollups are already rebuilt by another instance");
+            return;
+        }
+        rollupRepository.lock(WRITE_LOCK_KEY);
+        rollupRepository.deleteAllRollups();
+        configurationPlayerRepository.deleteAllPlayers();
+        final int configurations = rollupRepository.insertRollupsFromGameResults();
+        configurationPlayerRepository.insertPlayersFromGameResults();
+        questionStatisticRepository.deleteAllStatistics();
+        answerStatisticRepository.deleteAllStatistics();
+        questionStatisticRepository.insertStatisticsFromGameResults();
+        answerStatisticRepository.insertStatisticsFromGameResults();
+        log.info("rebuilt the rollups of {} configurations", configurations);
+    }
+
+    private double average(final long sum, final long count) {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Creates a statement that binds each array as one parameter, so a single statement can upsert many rows.
+     *
+     * @param sql    the statement
+     * @param arrays the parameters of the statement
+     * @return the creator of the statement
+     */
+    private static PreparedStatementCreator withArrays(final String sql, final SqlArray... arrays) {
+        return (final Connection connection) -> {
+            final PreparedStatement statement = connection.prepareStatement(sql);
+            for (int i = 0; i < arrays.length; i++) {
+                statement.setArray(i + 1, connection.createArrayOf(arrays[i].type(), arrays[i].elements()));
+            }
+            return statement;
+        };
+    }
+
+    /**
+     * An SQL array parameter.
+     *
+     * @param type     the SQL type of the elements
+     * @param elements the elements
+     */
+    private record SqlArray(String type, Object[] elements) {}
+}
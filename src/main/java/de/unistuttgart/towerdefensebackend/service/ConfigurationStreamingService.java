@@ -0,0 +1,168 @@
+package de.unistuttgart.towerdefensebackend.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.unistuttgart.towerdefensebackend.Constants;
+import de.unistuttgart.towerdefensebackend.data.Configuration;
+import de.unistuttgart.towerdefensebackend.data.ConfigurationDTO;
+import de.unistuttgart.towerdefensebackend.data.ConfigurationSummaryDTO;
+import de.unistuttgart.towerdefensebackend.data.mapper.ConfigurationMapper;
+import de.unistuttgart.towerdefensebackend.repositories.ConfigurationRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * This service writes large amounts of configurations directly to a response stream.
+ * The configurations are loaded and written in chunks, so the memory usage does not depend on the number of
+ * configurations that are written.
+ */
+@Service
+public class ConfigurationStreamingService {
+
+    static final int CHUNK_SIZE = 100;
+
+    @Autowired
+    private ConfigService configService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ConfigurationRepository configurationRepository;
+
+    @Autowired
+    private ConfigurationMapper configurationMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    /**
+     * Writes a page of configurations ordered by id as JSON object
+     * <code>{"configurations": [...], "nextCursor": "..."}</code>.
+     * The next cursor is the id of the last configuration if the page is full, null otherwise.
+     *
+     * @param outputStream the stream the page is written to
+     * @param after        the id after which the page starts, null for the first page
+     * @param limit        the maximum number of configurations
+     * @param full         whether the configurations are written with their questions instead of as summaries
+     * @throws IOException if the page cannot be written
+     */
+    public void writeConfigurationPage(
+            final OutputStream outputStream,
+            final UUID after,
+            final int limit,
+            final boolean full
+    ) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("configurations");
+            final UUID lastId = full
+                    ? writeChunks(generator, after, limit, configService::getConfigurationDTOs, ConfigurationDTO::getId)
+                    : writeChunks(
+                            generator,
+                            after,
+                            limit,
+                            configService::getConfigurationSummaries,
+                            ConfigurationSummaryDTO::getId
+                    );
+            generator.writeEndArray();
+            generator.writeObjectField("nextCursor", lastId);
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Writes all configurations with their questions as NDJSON, one configuration per line, ordered by id.
+     * The configurations are read from a database cursor in chunks of the fetch size. The questions of a chunk are
+     * loaded with one query before it is written, and the chunk is detached afterwards, so only the configurations
+     * of the current chunk are held in memory.
+     * The output can be imported again with {@link ConfigurationImportService}.
+     *
+     * @param outputStream the stream the configurations are written to
+     * @throws IOException if the configurations cannot be written
+     */
+    @Transactional(readOnly = true)
+    public void writeAllConfigurations(final OutputStream outputStream) throws IOException {
+        try (
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8);
+                Stream<Configuration> configurations = configurationRepository.streamAll()
+        ) {
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            final Iterator<Configuration> iterator = configurations.iterator();
+            final List<Configuration> chunk = new ArrayList<>(Constants.EXPORT_FETCH_SIZE);
+            boolean written = false;
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == Constants.EXPORT_FETCH_SIZE || !iterator.hasNext()) {
+                    writeChunk(generator, chunk);
+                    chunk.clear();
+                    written = true;
+                }
+            }
+            if (written) {
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    /**
+     * Loads the questions of the managed configurations with one query, writes the configurations and detaches them.
+     */
+    private void writeChunk(final JsonGenerator generator, final List<Configuration> chunk) throws IOException {
+        configurationRepository.findWithQuestionsByIdIn(chunk.stream().map(Configuration::getId).toList());
+        for (final Configuration configuration : chunk) {
+            generator.writeObject(configurationMapper.configurationToConfigurationDTO(configuration));
+            entityManager.detach(configuration);
+        }
+        generator.flush();
+    }
+
+    /**
+     * Loads and writes chunks until the limit is reached or no configurations are left.
+     *
+     * @return the id of the last written element if the limit was reached, null otherwise
+     */
+    private <T> UUID writeChunks(
+            final JsonGenerator generator,
+            final UUID after,
+            final int limit,
+            final ChunkLoader<T> loader,
+            final Function<T, UUID> idExtractor
+    ) throws IOException {
+        UUID cursor = after;
+        int remaining = limit;
+        while (remaining > 0) {
+            final int chunkSize = Math.min(remaining, CHUNK_SIZE);
+            final List<T> chunk = loader.load(cursor, chunkSize);
+            for (final T element : chunk) {
+                generator.writeObject(element);
+            }
+            generator.flush();
+            if (chunk.size() < chunkSize) {
+                return null;
+            }
+            cursor = idExtractor.apply(chunk.get(chunk.size() - 1));
+            remaining -= chunk.size();
+        }
+        return cursor;
+    }
+
+    @FunctionalInterface
+    private interface ChunkLoader<T> {
+        List<T> load(UUID after, int limit);
+    }
+}
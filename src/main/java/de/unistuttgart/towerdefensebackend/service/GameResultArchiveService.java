@@ -0,0 +1,171 @@
+package de.unistuttgart.towerdefensebackend.service;
+
+import de.unistuttgart.towerdefensebackend.repositories.GameResultRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * This service moves game results that are older than the configured age from game_result and its question result
+ * tables into game_result_archive, which is partitioned by month of the played time.
+ * This keeps the tables that receive the new game results small.
+ * <p>
+ * The game results are moved in small batches, each in its own transaction, with a pause in between,
+ * so the archival does not hold locks for long or compete with the saving of new game results.
+ * A session level advisory lock is held for the whole run on a connection that is taken from the pool for the lock
+ * alone, so only one instance archives at a time.
+ * The scheduler has a thread per scheduled job (spring.task.scheduling.pool.size), so a long run does not delay the
+ * other jobs.
+ * Archived game results are included when the rollups are rebuilt and the leaderboards are seeded.
+ */
+@Service
+@Slf4j
+public class GameResultArchiveService {
+
+    /**
+     * Key of the advisory lock that makes sure only one instance archives at a time.
+     */
+    static final long ARCHIVE_LOCK_KEY = 0x61726368697665L;
+
+    static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    @Autowired
+    GameResultRepository gameResultRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Value("${results.archive.age:180d}")
+    private Duration age;
+
+    @Value("${results.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${results.archive.batch-pause:200ms}")
+    private Duration batchPause;
+
+    @Value("${results.archive.max-batches:1000}")
+    private int maxBatches;
+
+    private Counter archivedResults;
+
+    @PostConstruct
+    void registerMetrics() {
+        archivedResults =
+                Counter
+                        .builder("results.archived")
+                        .description("game results that were moved into the archive")
+                        .register(meterRegistry);
+    }
+
+    /**
+     * Moves the game results played before the configured age into the archive.
+     * Runs with the configured cron expression, which is disabled by default.
+     * If another instance is already archiving, nothing is done.
+     *
+     * @throws SQLException if the connection for the lock cannot be taken or released
+     */
+    @Scheduled(cron = "${results.archive.cron:-}")
+    public void archiveGameResults() throws SQLException {
+        // the lock belongs to the session of this connection, it is not bound to the thread, so the batches and
+        // everything else that runs on this thread use other connections
+        try (Connection connection = dataSource.getConnection()) {
+            final JdbcTemplate lockTemplate = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            final Boolean locked = lockTemplate.queryForObject(
+                    "SELECT pg_try_advisory_lock(?)",
+                    Boolean.class,
+                    ARCHIVE_LOCK_KEY
+            );
+            if (!Boolean.TRUE.equals(locked)) {
+                log.info("the game results are already archived by another instance");
+                return;
+            }
+            try {
+                archive(LocalDateTime.now().minus(age));
+            } finally {
+                lockTemplate.queryForObject("SELECT pg_advisory_unlock(?)", Boolean.class, ARCHIVE_LOCK_KEY);
+            }
+        }
+    }
+
+    /**
+     * Creates the missing partitions and moves the game results in batches, has to be called with the lock held.
+     *
+     * @param before the time before which the game results are archived
+     */
+    private void archive(final LocalDateTime before) {
+        transactionTemplate.executeWithoutResult(status -> createPartitions(before));
+        int archived = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            final Integer moved = transactionTemplate.execute(status ->
+                    gameResultRepository.archiveGameResults(before, batchSize)
+            );
+            archived += moved;
+            archivedResults.increment(moved);
+            if (moved < batchSize) {
+                break;
+            }
+            try {
+                Thread.sleep(batchPause.toMillis());
+            } catch (final InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        log.info("archived {} game results played before {}", archived, before);
+    }
+
+    /**
+     * Creates the monthly partitions of the archive for all game results played before the given time.
+     *
+     * @param before the time before which the game results are archived
+     */
+    private void createPartitions(final LocalDateTime before) {
+        final Optional<LocalDateTime> oldest = gameResultRepository.findOldestPlayedTime();
+        if (oldest.isEmpty()) {
+            return;
+        }
+        for (
+                LocalDateTime month = oldest.get().truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+                month.isBefore(before);
+                month = month.plusMonths(1)
+        ) {
+            jdbcTemplate.execute(
+                    String.format(
+                            "CREATE TABLE IF NOT EXISTS game_result_archive_%s PARTITION OF game_result_archive " +
+                            "FOR VALUES FROM ('%s') TO ('%s')",
+                            month.format(PARTITION_SUFFIX),
+                            month,
+                            month.plusMonths(1)
+                    )
+            );
+        }
+    }
+}
@@ -1,19 +1,39 @@
 package de.unistuttgart.towerdefensebackend.service;
 
-import de.unistuttgart.towerdefensebackend.clients.ResultClient;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.unistuttgart.towerdefensebackend.Constants;
+import de.unistuttgart.towerdefensebackend.data.BatchItemResultDTO;
 import de.unistuttgart.towerdefensebackend.data.GameResult;
 import de.unistuttgart.towerdefensebackend.data.GameResultDTO;
+import de.unistuttgart.towerdefensebackend.data.GameResultSummary;
+import de.unistuttgart.towerdefensebackend.data.GameResultSummaryDTO;
 import de.unistuttgart.towerdefensebackend.data.OverworldResultDTO;
+import de.unistuttgart.towerdefensebackend.data.OverworldResultOutboxEntry;
+import de.unistuttgart.towerdefensebackend.data.PerfectScoreCounter;
+import de.unistuttgart.towerdefensebackend.data.Question;
 import de.unistuttgart.towerdefensebackend.data.QuestionResult;
+import de.unistuttgart.towerdefensebackend.data.QuestionResultDTO;
 import de.unistuttgart.towerdefensebackend.data.mapper.QuestionResultMapper;
 import de.unistuttgart.towerdefensebackend.repositories.GameResultRepository;
-import feign.FeignException;
+import de.unistuttgart.towerdefensebackend.repositories.OverworldResultOutboxRepository;
+import de.unistuttgart.towerdefensebackend.repositories.PerfectScoreCounterRepository;
+import io.micrometer.core.annotation.Timed;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import javax.validation.ConstraintViolation;
 import javax.validation.Valid;
+import javax.validation.Validator;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,21 +45,50 @@ import org.springframework.web.server.ResponseStatusException;
 @Service
 @Slf4j
 @Transactional
+@Timed(value = "service.method", histogram = true)
 public class GameResultService {
 
-    @Autowired
-    ResultClient resultClient;
+    /**
+     * Number of perfect scores per player and configuration that are rewarded with the full rewards.
+     */
+    private static final int MAX_FULL_REWARD_PERFECT_SCORES = 3;
+
+    /**
+     * Keyset that is after every game result, the first page of the history starts before it.
+     */
+    private static final LocalDateTime HISTORY_START_PLAYED_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final UUID HISTORY_START_ID = new UUID(-1L, -1L);
 
     @Autowired
     GameResultRepository gameResultRepository;
 
+    @Autowired
+    OverworldResultOutboxRepository outboxRepository;
+
     @Autowired
     QuestionResultMapper questionResultMapper;
 
-    private int hundredScoreCount = 0;
+    @Autowired
+    Validator validator;
+
+    @Autowired
+    PerfectScoreCounterRepository perfectScoreCounterRepository;
+
+    @Autowired
+    ConfigurationStatisticService configurationStatisticService;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    private final Cache<PerfectScoreCounter.Key, Boolean> exhaustedPerfectScoreCounters = Caffeine
+            .newBuilder()
+            .maximumSize(100_000)
+            .build();
 
     /**
-     * Casts a GameResultDTO to GameResult and saves it in the database
+     * Casts a GameResultDTO to GameResult and saves it in the database.
+     * The rollup of the configuration is updated and the result for the overworld-backend is saved to the outbox
+     * in the same transaction. The outbox entry is delivered asynchronously by the OverworldResultDispatcher.
      *
      * @param gameResultDTO extern gameResultDTO
      * @param userId        id of the user
@@ -54,66 +103,246 @@ public class GameResultService {
         if (gameResultDTO == null || userId == null || accessToken == null) {
             throw new IllegalArgumentException("gameResultDTO or userId or accessToken is null");
         }
-        final OverworldResultDTO resultDTO = createOverworldResult(gameResultDTO, userId);
-        try {
-            resultClient.submit(resultDTO, accessToken);
-            final List<QuestionResult> correctQuestions = questionResultMapper.questionResultDTOsToQuestionResults(
-                    gameResultDTO.getCorrectAnsweredQuestions()
+        final Map<UUID, Question> questions = questionResultMapper.resolveQuestions(getAnsweredQuestions(gameResultDTO));
+        final GameResult result = createGameResult(gameResultDTO, userId, questions);
+        gameResultRepository.save(result);
+        configurationStatisticService.addGameResults(List.of(result));
+        eventPublisher.publishEvent(new GameResultsSavedEvent(List.of(result)));
+        outboxRepository.save(new OverworldResultOutboxEntry(createOverworldResult(result), accessToken));
+    }
+
+    /**
+     * Validates and saves many GameResultDTOs of the same user at once.
+     * The questions of all results are resolved with one query and the results are inserted in JDBC batches.
+     * Invalid results are skipped and reported, they do not prevent the other results from being saved.
+     *
+     * @param gameResultDTOs extern gameResultDTOs
+     * @param userId         id of the user
+     * @param accessToken    accessToken of the user
+     * @return the outcome for each result, in the order of the request
+     * @throws ResponseStatusException  when more than the maximum number of results are sent
+     * @throws IllegalArgumentException if at least one of the arguments is null
+     */
+    public List<BatchItemResultDTO<GameResultDTO>> saveGameResults(
+            final List<GameResultDTO> gameResultDTOs,
+            final String userId,
+            final String accessToken
+    ) {
+        if (gameResultDTOs == null || userId == null || accessToken == null) {
+            throw new IllegalArgumentException("gameResultDTOs or userId or accessToken is null");
+        }
+        if (gameResultDTOs.size() > Constants.MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    String.format("cannot save more than %s results at once", Constants.MAX_BATCH_SIZE)
             );
-            final List<QuestionResult> wrongQuestions = questionResultMapper.questionResultDTOsToQuestionResults(
-                    gameResultDTO.getWrongAnsweredQuestions()
+        }
+        final List<BatchItemResultDTO<GameResultDTO>> outcomes = new ArrayList<>(gameResultDTOs.size());
+        final List<QuestionResultDTO> answeredQuestions = new ArrayList<>();
+        for (int index = 0; index < gameResultDTOs.size(); index++) {
+            final GameResultDTO gameResultDTO = gameResultDTOs.get(index);
+            final List<String> errors = validate(gameResultDTO);
+            if (errors.isEmpty()) {
+                answeredQuestions.addAll(getAnsweredQuestions(gameResultDTO));
+            }
+            outcomes.add(
+                    new BatchItemResultDTO<>(
+                            index,
+                            errors.isEmpty() ? HttpStatus.CREATED.value() : HttpStatus.BAD_REQUEST.value(),
+                            errors,
+                            gameResultDTO
+                    )
             );
+        }
 
-            final long score = calculateResultScore(gameResultDTO.getCorrectQuestionsCount(), gameResultDTO.getQuestionCount());
-            final int rewards = calculateRewards(score);
-            final GameResult result = new @Valid GameResult(
-                    gameResultDTO.getQuestionCount(),
-                    gameResultDTO.getCorrectQuestionsCount(),
-                    gameResultDTO.getWrongQuestionsCount(),
-                    gameResultDTO.getPoints(),
-                    correctQuestions,
-                    wrongQuestions,
-                    gameResultDTO.getConfigurationAsUUID(),
-                    userId,
-                    score,
-                    rewards
+        final Map<UUID, Question> questions = questionResultMapper.findQuestions(answeredQuestions);
+        final List<GameResult> results = new ArrayList<>();
+        final List<OverworldResultOutboxEntry> outboxEntries = new ArrayList<>();
+        // the perfect score counters are incremented in configuration order, so concurrent batches of a player
+        // lock them in the same order and cannot deadlock
+        final List<BatchItemResultDTO<GameResultDTO>> validOutcomes = outcomes
+                .stream()
+                .filter(outcome -> outcome.getStatus() == HttpStatus.CREATED.value())
+                .sorted(Comparator.comparing(outcome -> outcome.getItem().getConfigurationAsUUID()))
+                .toList();
+        for (final BatchItemResultDTO<GameResultDTO> outcome : validOutcomes) {
+            final GameResultDTO gameResultDTO = outcome.getItem();
+            final List<UUID> unknownIds = questionResultMapper.getUnknownQuestionIds(
+                    getAnsweredQuestions(gameResultDTO),
+                    questions
             );
-            gameResultDTO.setScore(score);
-            gameResultDTO.setRewards(rewards);
-
-            gameResultRepository.save(result);
-        } catch (final FeignException.BadGateway badGateway) {
-            final String warning =
-                    "The Overworld backend is currently not available. The result was NOT saved. Please try again later";
-            log.error(warning + badGateway);
-            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, warning);
-        } catch (final FeignException.NotFound notFound) {
-            final String warning = "The result could not be saved. Unknown User";
-            log.error(warning + notFound);
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, warning);
+            if (!unknownIds.isEmpty()) {
+                outcome.setStatus(HttpStatus.NOT_FOUND.value());
+                outcome.setErrors(List.of(String.format("There are no questions with uuids %s.", unknownIds)));
+                continue;
+            }
+            try {
+                final GameResult result = createGameResult(gameResultDTO, userId, questions);
+                results.add(result);
+                outboxEntries.add(new OverworldResultOutboxEntry(createOverworldResult(result), accessToken));
+            } catch (final IllegalArgumentException illegalArgument) {
+                outcome.setStatus(HttpStatus.BAD_REQUEST.value());
+                outcome.setErrors(List.of(illegalArgument.getMessage()));
+            }
         }
+        gameResultRepository.saveAll(results);
+        configurationStatisticService.addGameResults(results);
+        eventPublisher.publishEvent(new GameResultsSavedEvent(results));
+        outboxRepository.saveAll(outboxEntries);
+        return outcomes;
     }
 
     /**
-     * Create an OverworldResultDTO
+     * Returns a page of the saved and archived game results of a player and/or a configuration, newest first.
+     * The pages are ordered by played time and id, the next page starts before the last game result of the previous
+     * one.
      *
-     * @param gameResultDTO contains all game related data
-     * @param userId        id of the player
-     * @return OverworldResultDTO
+     * @param playerId        the id of the player, null for all players
+     * @param configurationId the id of the configuration, null for all configurations
+     * @param before          the id of the last game result of the previous page, null for the first page
+     * @param limit           the maximum number of game results
+     * @return the game results as DTOs
+     * @throws ResponseStatusException (400) when neither player nor configuration are given, the limit is out of
+     *                                 range or the game result of the previous page does not exist
      */
-    private OverworldResultDTO createOverworldResult(final @Valid GameResultDTO gameResultDTO, final String userId) {
-        final long resultScore = calculateResultScore(
-                gameResultDTO.getCorrectQuestionsCount(),
-                gameResultDTO.getQuestionCount()
+    @Transactional(readOnly = true)
+    public List<GameResultSummaryDTO> getGameResultHistory(
+            final String playerId,
+            final UUID configurationId,
+            final UUID before,
+            final int limit
+    ) {
+        if (playerId == null && configurationId == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "playerId or configurationId is required");
+        }
+        if (limit < 1 || limit > Constants.MAX_HISTORY_PAGE_SIZE) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    String.format("limit must be between 1 and %s", Constants.MAX_HISTORY_PAGE_SIZE)
+            );
+        }
+        final LocalDateTime playedTime = before == null
+                ? HISTORY_START_PLAYED_TIME
+                : gameResultRepository
+                        .findPlayedTimeById(before)
+                        .orElseThrow(() ->
+                                new ResponseStatusException(
+                                        HttpStatus.BAD_REQUEST,
+                                        String.format("There is no game result with id %s.", before)
+                                )
+                        );
+        final UUID id = before != null ? before : HISTORY_START_ID;
+        final List<GameResultSummary> history;
+        if (configurationId == null) {
+            history = gameResultRepository.findHistoryOfPlayer(playerId, playedTime, id, limit);
+        } else if (playerId == null) {
+            history = gameResultRepository.findHistoryOfConfiguration(configurationId, playedTime, id, limit);
+        } else {
+            history =
+                    gameResultRepository.findHistoryOfPlayerAndConfiguration(
+                            playerId,
+                            configurationId,
+                            playedTime,
+                            id,
+                            limit
+                    );
+        }
+        return history.stream().map(GameResultSummaryDTO::new).toList();
+    }
+
+    /**
+     * Creates the GameResult of a GameResultDTO and sets the calculated score and rewards in the DTO
+     *
+     * @param gameResultDTO extern gameResultDTO
+     * @param userId        id of the user
+     * @param questions     the questions answered in the game by their id
+     * @return the GameResult
+     * @throws IllegalArgumentException if the question counts are not possible
+     */
+    private GameResult createGameResult(
+            final GameResultDTO gameResultDTO,
+            final String userId,
+            final Map<UUID, Question> questions
+    ) {
+        final List<QuestionResult> correctQuestions = questionResultMapper.questionResultDTOsToQuestionResults(
+                gameResultDTO.getCorrectAnsweredQuestions(),
+                questions
         );
-        final int rewards = calculateRewards(resultScore);
-        return new @Valid OverworldResultDTO(
-                "TOWERDEFENSE",
+        final List<QuestionResult> wrongQuestions = questionResultMapper.questionResultDTOsToQuestionResults(
+                gameResultDTO.getWrongAnsweredQuestions(),
+                questions
+        );
+
+        final long score = calculateResultScore(gameResultDTO.getCorrectQuestionsCount(), gameResultDTO.getQuestionCount());
+        final int rewards = calculateRewards(score, userId, gameResultDTO.getConfigurationAsUUID());
+        final GameResult result = new @Valid GameResult(
+                gameResultDTO.getQuestionCount(),
+                gameResultDTO.getCorrectQuestionsCount(),
+                gameResultDTO.getWrongQuestionsCount(),
+                gameResultDTO.getPoints(),
+                correctQuestions,
+                wrongQuestions,
                 gameResultDTO.getConfigurationAsUUID(),
-                resultScore,
                 userId,
+                score,
                 rewards
         );
+        gameResultDTO.setScore(score);
+        gameResultDTO.setRewards(rewards);
+        return result;
+    }
+
+    /**
+     * @param gameResultDTO extern gameResultDTO
+     * @return the correctly and incorrectly answered questions of the game
+     */
+    private List<QuestionResultDTO> getAnsweredQuestions(final GameResultDTO gameResultDTO) {
+        final List<QuestionResultDTO> answeredQuestions = new ArrayList<>(gameResultDTO.getCorrectAnsweredQuestions());
+        answeredQuestions.addAll(gameResultDTO.getWrongAnsweredQuestions());
+        return answeredQuestions;
+    }
+
+    /**
+     * Validates a GameResultDTO that is not validated by the controller
+     *
+     * @param gameResultDTO extern gameResultDTO
+     * @return the validation errors in the format "field: message"
+     */
+    private List<String> validate(final GameResultDTO gameResultDTO) {
+        if (gameResultDTO == null) {
+            return List.of("result cannot be null");
+        }
+        final List<String> errors = new ArrayList<>();
+        for (final ConstraintViolation<GameResultDTO> violation : validator.validate(gameResultDTO)) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        if (gameResultDTO.getCorrectAnsweredQuestions() == null) {
+            errors.add("correctAnsweredQuestions: cannot be null");
+        } else if (gameResultDTO.getCorrectAnsweredQuestions().stream().anyMatch(Objects::isNull)) {
+            errors.add("correctAnsweredQuestions: cannot contain null");
+        }
+        if (gameResultDTO.getWrongAnsweredQuestions() == null) {
+            errors.add("wrongAnsweredQuestions: cannot be null");
+        } else if (gameResultDTO.getWrongAnsweredQuestions().stream().anyMatch(Objects::isNull)) {
+            errors.add("wrongAnsweredQuestions: cannot contain null");
+        }
+        return errors;
+    }
+
+    /**
+     * Create an OverworldResultDTO
+     *
+     * @param result the saved game result
+     * @return OverworldResultDTO
+     */
+    private OverworldResultDTO createOverworldResult(final GameResult result) {
+        return new @Valid OverworldResultDTO(
+                "TOWERDEFENSE",
+                result.getConfigurationAsUUID(),
+                result.getScore(),
+                result.getPlayerId(),
+                result.getRewards()
+        );
     }
 
     /**
@@ -124,7 +353,7 @@ public class GameResultService {
      * @return score as int in per cent
      * @throws IllegalArgumentException if correctAnswers < 0 || numberOfQuestions < correctAnswers
      */
-    private long calculateResultScore(final int correctAnswers, final int numberOfQuestions) {
+    long calculateResultScore(final int correctAnswers, final int numberOfQuestions) {
         if (correctAnswers < 0 || numberOfQuestions < correctAnswers) {
             throw new IllegalArgumentException(
                     String.format(
@@ -139,21 +368,33 @@ public class GameResultService {
 
     /**
      * Calculates the player rewards based on the result score achieved in the minigame.
-     * Note that after successfully completing the game more than three times, the player rewards will decrease.
-     * @param resultScore result score of the minigame
+     * Note that after successfully completing the game with a configuration more than three times,
+     * the player rewards will decrease.
+     * The perfect scores are counted per player and configuration in the database. Players that already reached the
+     * limit are remembered in memory, so their further perfect scores do not need a database write.
+     *
+     * @param resultScore     result score of the minigame
+     * @param playerId        id of the player
+     * @param configurationId id of the played configuration
      * @return rewards for the minigame session
      */
-    private int calculateRewards(final long resultScore) {
+    int calculateRewards(final long resultScore, final String playerId, final UUID configurationId) {
         if (resultScore < 0) {
             throw new IllegalArgumentException("Result score cannot be less than zero");
         }
-        if (resultScore == 100 && hundredScoreCount < 3) {
-            hundredScoreCount++;
-            return 10;
+        if (resultScore != 100) {
+            return (int) resultScore / 10;
         }
-        else if (resultScore == 100) {
+        final PerfectScoreCounter.Key key = new PerfectScoreCounter.Key(playerId, configurationId);
+        if (exhaustedPerfectScoreCounters.getIfPresent(key) != null) {
             return 5;
         }
-        return (int) resultScore / 10;
+        final int perfectScoreCount = perfectScoreCounterRepository.incrementAndGet(playerId, configurationId);
+        if (perfectScoreCount <= MAX_FULL_REWARD_PERFECT_SCORES) {
+            return 10;
+        }
+        // the previous increments are committed, otherwise the upsert would have waited for them
+        exhaustedPerfectScoreCounters.put(key, Boolean.TRUE);
+        return 5;
     }
 }
@@ -0,0 +1,12 @@
+package de.unistuttgart.towerdefensebackend.service;
+
+import de.unistuttgart.towerdefensebackend.data.GameResult;
+
+import java.util.List;
+
+/**
+ * Published when game results are saved. Listeners that act after the commit only see committed results.
+ *
+ * @param results the saved game results
+ */
+public record GameResultsSavedEvent(List<GameResult> results) {}
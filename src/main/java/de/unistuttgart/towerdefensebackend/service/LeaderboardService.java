@@ -0,0 +1,170 @@
+package de.unistuttgart.towerdefensebackend.service;
+
+import de.unistuttgart.towerdefensebackend.data.GameResult;
+import de.unistuttgart.towerdefensebackend.data.LeaderboardEntryDTO;
+import de.unistuttgart.towerdefensebackend.data.RankedGameResult;
+import de.unistuttgart.towerdefensebackend.repositories.GameResultRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * This service keeps the best game results of each configuration in memory.
+ * The leaderboards are seeded from the database at startup and updated after each commit of saved game results.
+ * <p>
+ * Each instance only gets the commits of its own game results directly. The results saved by other instances are
+ * merged in by a periodic reseed, which ranks the results played since the previous reseed (minus an overlap for
+ * transactions that were still running). So the leaderboards of an instance contain its own results immediately and
+ * the results of the other instances after at most one reseed interval. Results are never removed from a leaderboard
+ * except by better results, as a leaderboard only contains the best results of a growing set.
+ */
+@Service
+@Slf4j
+public class LeaderboardService {
+
+    static final Comparator<LeaderboardEntryDTO> RANKING = Comparator
+            .comparingInt(LeaderboardEntryDTO::getPoints)
+            .reversed()
+            .thenComparing(Comparator.comparingLong(LeaderboardEntryDTO::getScore).reversed())
+            .thenComparing(LeaderboardEntryDTO::getPlayedTime)
+            .thenComparing(LeaderboardEntryDTO::getGameResultId);
+
+    @Autowired
+    private GameResultRepository gameResultRepository;
+
+    @Value("${leaderboard.size:10}")
+    private int size;
+
+    @Value("${leaderboard.reseed-overlap:5m}")
+    private Duration reseedOverlap;
+
+    private final Map<UUID, Leaderboard> leaderboards = new ConcurrentHashMap<>();
+
+    private volatile LocalDateTime lastSeed;
+
+    /**
+     * Returns the best game results of a configuration.
+     *
+     * @param configurationId the id of the configuration
+     * @return the best game results, the best first
+     */
+    public List<LeaderboardEntryDTO> getLeaderboard(final UUID configurationId) {
+        final Leaderboard leaderboard = leaderboards.get(configurationId);
+        return leaderboard != null ? leaderboard.getEntries() : List.of();
+    }
+
+    /**
+     * Adds the game results to the leaderboards of their configurations once they are committed.
+     *
+     * @param event the event of the saved game results
+     */
+    @TransactionalEventListener
+    public void addGameResults(final GameResultsSavedEvent event) {
+        for (final GameResult result : event.results()) {
+            getOrCreateLeaderboard(result.getConfigurationAsUUID()).offer(new LeaderboardEntryDTO(result));
+        }
+    }
+
+    /**
+     * Seeds the leaderboards with the best game results of all configurations.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        seedSince(LocalDateTime.of(1970, 1, 1, 0, 0));
+    }
+
+    /**
+     * Merges the game results played since the previous seed, including the ones saved by other instances.
+     */
+    @Scheduled(
+            fixedDelayString = "${leaderboard.reseed-interval:60000}",
+            initialDelayString = "${leaderboard.reseed-interval:60000}"
+    )
+    public void reseed() {
+        if (lastSeed == null) {
+            return;
+        }
+        seedSince(lastSeed.minus(reseedOverlap));
+    }
+
+    private void seedSince(final LocalDateTime since) {
+        final LocalDateTime seedStart = LocalDateTime.now();
+        final List<RankedGameResult> results = gameResultRepository.findTopResultsPerConfiguration(since, size);
+        for (final RankedGameResult result : results) {
+            getOrCreateLeaderboard(result.getConfigurationId())
+                    .offer(
+                            new LeaderboardEntryDTO(
+                                    result.getId(),
+                                    result.getPlayerId(),
+                                    result.getPoints(),
+                                    result.getScore(),
+                                    result.getPlayedTime()
+                            )
+                    );
+        }
+        lastSeed = seedStart;
+        log.debug("seeded the leaderboards with {} results played since {}", results.size(), since);
+    }
+
+    private Leaderboard getOrCreateLeaderboard(final UUID configurationId) {
+        return leaderboards.computeIfAbsent(configurationId, id -> new Leaderboard(size));
+    }
+
+    /**
+     * The best entries of a configuration, bounded to a fixed size.
+     */
+    private static class Leaderboard {
+
+        private final int size;
+        private final NavigableSet<LeaderboardEntryDTO> entries = new TreeSet<>(RANKING);
+        private final Set<UUID> gameResultIds = new HashSet<>();
+
+        Leaderboard(final int size) {
+            this.size = size;
+        }
+
+        /**
+         * Adds the entry if it is better than the worst entry or the leaderboard is not full yet, in O(log size).
+         * Entries are identified by their game result, as the same result is offered again by the reseed.
+         */
+        synchronized void offer(final LeaderboardEntryDTO entry) {
+            if (gameResultIds.contains(entry.getGameResultId())) {
+                return;
+            }
+            if (entries.size() < size) {
+                add(entry);
+            } else if (RANKING.compare(entry, entries.last()) < 0) {
+                add(entry);
+                gameResultIds.remove(entries.pollLast().getGameResultId());
+            }
+        }
+
+        private void add(final LeaderboardEntryDTO entry) {
+            entries.add(entry);
+            gameResultIds.add(entry.getGameResultId());
+        }
+
+        synchronized List<LeaderboardEntryDTO> getEntries() {
+            return new ArrayList<>(entries);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package de.unistuttgart.towerdefensebackend.service;
+
+import de.unistuttgart.towerdefensebackend.clients.ResultClient;
+import de.unistuttgart.towerdefensebackend.data.OverworldResultOutboxEntry;
+import de.unistuttgart.towerdefensebackend.repositories.OverworldResultOutboxRepository;
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * This service delivers the pending entries of the overworld result outbox to the overworld-backend.
+ * Entries are claimed in batches with a lease, so several instances of the service can dispatch concurrently.
+ * The lease covers a whole batch in which every call runs into the timeouts of the result client, so an entry that
+ * is still being delivered is not claimed again. An entry whose lease expires (e.g. because the instance died) is
+ * picked up again, i.e. delivery is at-least-once.
+ * If the circuit breaker or the bulkhead rejects a call, the dispatching stops until the next run and the rest of the
+ * batch is released with a single statement.
+ * Delivered and failed entries are deleted after the retention.
+ */
+@Service
+@Slf4j
+public class OverworldResultDispatcher {
+
+    @Autowired
+    ResultClient resultClient;
+
+    @Autowired
+    OverworldResultOutboxRepository outboxRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Value("${overworld.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${overworld.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${overworld.outbox.lease-margin:30s}")
+    private Duration leaseMargin;
+
+    @Value("${feign.client.config.resultClient.connect-timeout:10000}")
+    private long connectTimeoutMillis;
+
+    @Value("${feign.client.config.resultClient.read-timeout:60000}")
+    private long readTimeoutMillis;
+
+    @Value("${overworld.outbox.retention:7d}")
+    private Duration retention;
+
+    @Value("${overworld.outbox.initial-backoff:1s}")
+    private Duration initialBackoff;
+
+    @Value("${overworld.outbox.max-backoff:10m}")
+    private Duration maxBackoff;
+
+    private final AtomicLong depth = new AtomicLong();
+    private final AtomicLong oldestPendingAgeSeconds = new AtomicLong();
+    private Timer deliveryLag;
+    private Counter failedDeliveries;
+    private Duration lease;
+
+    @PostConstruct
+    void initLease() {
+        lease = Duration.ofMillis((connectTimeoutMillis + readTimeoutMillis) * batchSize).plus(leaseMargin);
+    }
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge
+                .builder("overworld.outbox.depth", depth, AtomicLong::get)
+                .description("number of results that are not yet delivered to the overworld-backend")
+                .register(meterRegistry);
+        Gauge
+                .builder("overworld.outbox.oldest.pending.age", oldestPendingAgeSeconds, AtomicLong::get)
+                .description("age of the oldest result that is not yet delivered to the overworld-backend")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        deliveryLag =
+                Timer
+                        .builder("overworld.outbox.delivery.lag")
+                        .description("time between saving a result and delivering it to the overworld-backend")
+                        .publishPercentileHistogram()
+                        .register(meterRegistry);
+        failedDeliveries =
+                Counter
+                        .builder("overworld.outbox.delivery.failed")
+                        .description("results that were given up after the last delivery attempt")
+                        .register(meterRegistry);
+    }
+
+    /**
+     * Delivers all due outbox entries in batches and updates the outbox metrics.
+     * Stops at the first call that is rejected by the circuit breaker or the bulkhead.
+     */
+    @Scheduled(fixedDelayString = "${overworld.outbox.dispatch-interval:1000}")
+    public void dispatchPendingResults() {
+        List<OverworldResultOutboxEntry> batch;
+        boolean permitted;
+        do {
+            batch = claimBatch();
+            permitted = deliverBatch(batch);
+        } while (permitted && batch.size() == batchSize);
+        updateDepth();
+    }
+
+    /**
+     * Deletes the delivered and failed entries that were created before the retention, so the outbox does not grow.
+     * Failed entries are kept until then, so they can be inspected.
+     */
+    @Scheduled(cron = "${overworld.outbox.purge-cron:-}")
+    public void purgeCompletedEntries() {
+        final Integer deleted = transactionTemplate.execute(status ->
+                outboxRepository.deleteByStatusInAndCreatedAtBefore(
+                        List.of(OverworldResultOutboxEntry.Status.DELIVERED, OverworldResultOutboxEntry.Status.FAILED),
+                        LocalDateTime.now().minus(retention)
+                )
+        );
+        log.info("purged {} delivered or failed outbox entries", deleted);
+    }
+
+    /**
+     * Claims the next batch of due entries by moving their next attempt behind the lease.
+     *
+     * @return the claimed entries
+     */
+    private List<OverworldResultOutboxEntry> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            final LocalDateTime now = LocalDateTime.now();
+            final List<OverworldResultOutboxEntry> entries = outboxRepository.findDueForUpdate(
+                    OverworldResultOutboxEntry.Status.PENDING,
+                    now,
+                    PageRequest.of(0, batchSize)
+            );
+            entries.forEach(entry -> entry.setNextAttemptAt(now.plus(lease)));
+            return entries;
+        });
+    }
+
+    /**
+     * Delivers the claimed entries one after another.
+     * If a call is rejected by the circuit breaker or the bulkhead, the following calls would be rejected as well,
+     * so the entry and the rest of the batch are released for the next run without being counted as attempt.
+     *
+     * @param batch the claimed entries
+     * @return false if a call was rejected
+     */
+    private boolean deliverBatch(final List<OverworldResultOutboxEntry> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            if (!deliver(batch.get(i))) {
+                final List<UUID> rejected = batch
+                        .subList(i, batch.size())
+                        .stream()
+                        .map(OverworldResultOutboxEntry::getId)
+                        .toList();
+                transactionTemplate.executeWithoutResult(status ->
+                        outboxRepository.updateNextAttemptAt(rejected, LocalDateTime.now().plus(initialBackoff))
+                );
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sends a single entry to the overworld-backend and records the outcome.
+     * Client errors (e.g. an unknown user) are not retried, all other errors are retried with exponential backoff.
+     * If the call is rejected by the circuit breaker or bulkhead, the entry is left as it is.
+     *
+     * @param entry the claimed entry
+     * @return false if the call was rejected by the circuit breaker or bulkhead
+     */
+    private boolean deliver(final OverworldResultOutboxEntry entry) {
+        try {
+            resultClient.submit(entry.toOverworldResultDTO(), entry.getAccessToken());
+            final LocalDateTime now = LocalDateTime.now();
+            entry.setStatus(OverworldResultOutboxEntry.Status.DELIVERED);
+            entry.setDeliveredAt(now);
+            entry.setAccessToken(null);
+            deliveryLag.record(Duration.between(entry.getCreatedAt(), now));
+        } catch (final FeignException exception) {
+            final boolean clientError =
+                    exception.status() >= 400 &&
+                    exception.status() < 500 &&
+                    exception.status() != HttpStatus.REQUEST_TIMEOUT.value() &&
+                    exception.status() != HttpStatus.TOO_MANY_REQUESTS.value();
+            handleFailedAttempt(entry, exception, clientError);
+        } catch (final CallNotPermittedException | BulkheadFullException exception) {
+            log.debug("Results are not sent to the overworld-backend yet: {}", exception.toString());
+            return false;
+        } catch (final RuntimeException exception) {
+            handleFailedAttempt(entry, exception, false);
+        }
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.save(entry));
+        return true;
+    }
+
+    private void handleFailedAttempt(
+            final OverworldResultOutboxEntry entry,
+            final RuntimeException exception,
+            final boolean permanent
+    ) {
+        entry.setAttempts(entry.getAttempts() + 1);
+        entry.setLastError(abbreviate(exception.toString()));
+        if (permanent || entry.getAttempts() >= maxAttempts) {
+            log.error(
+                    "Result {} of user {} could not be delivered to the overworld-backend after {} attempts: {}",
+                    entry.getId(),
+                    entry.getUserId(),
+                    entry.getAttempts(),
+                    exception.toString()
+            );
+            entry.setStatus(OverworldResultOutboxEntry.Status.FAILED);
+            entry.setAccessToken(null);
+            failedDeliveries.increment();
+            return;
+        }
+        log.warn(
+                "Result {} could not be delivered to the overworld-backend, retrying: {}",
+                entry.getId(),
+                exception.toString()
+        );
+        entry.setNextAttemptAt(LocalDateTime.now().plus(backoff(entry.getAttempts())));
+    }
+
+    /**
+     * @param attempts number of failed attempts so far
+     * @return the delay before the next attempt, doubling with every attempt up to the maximum backoff
+     */
+    private Duration backoff(final int attempts) {
+        final Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private void updateDepth() {
+        depth.set(outboxRepository.countByStatus(OverworldResultOutboxEntry.Status.PENDING));
+        oldestPendingAgeSeconds.set(
+                outboxRepository
+                        .findOldestCreatedAt(OverworldResultOutboxEntry.Status.PENDING)
+                        .map(createdAt -> Duration.between(createdAt, LocalDateTime.now()).toSeconds())
+                        .orElse(0L)
+        );
+    }
+
+    private static String abbreviate(final String message) {
+        return message.length() <= 1024 ? message : message.substring(0, 1024);
+    }
+}
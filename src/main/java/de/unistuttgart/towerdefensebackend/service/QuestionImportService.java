@@ -0,0 +1,305 @@
+package de.unistuttgart.towerdefensebackend.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import de.unistuttgart.towerdefensebackend.CacheConfiguration;
+import de.unistuttgart.towerdefensebackend.data.BatchItemResultDTO;
+import de.unistuttgart.towerdefensebackend.data.Question;
+import de.unistuttgart.towerdefensebackend.data.QuestionDTO;
+import de.unistuttgart.towerdefensebackend.data.mapper.QuestionMapper;
+import de.unistuttgart.towerdefensebackend.repositories.ConfigurationRepository;
+import de.unistuttgart.towerdefensebackend.repositories.QuestionRepository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * This service imports large amounts of questions into a configuration.
+ * The questions are read row by row from an NDJSON or CSV stream, validated and inserted in batches.
+ * The outcome of each row is written as NDJSON as soon as its batch is processed, so the memory usage does not depend
+ * on the number of imported questions.
+ * <p>
+ * Every batch is inserted in its own transaction, i.e. the rows reported as created are imported even if a later
+ * batch fails.
+ */
+@Service
+@Slf4j
+public class QuestionImportService {
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    static final String CSV_TEXT_COLUMN = "text";
+    static final String CSV_CORRECT_ANSWER_COLUMN = "correctAnswer";
+
+    @Autowired
+    ConfigurationRepository configurationRepository;
+
+    @Autowired
+    QuestionRepository questionRepository;
+
+    @Autowired
+    QuestionMapper questionMapper;
+
+    @Autowired
+    Validator validator;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${configuration.import.batch-size:100}")
+    private int batchSize;
+
+    /**
+     * Imports the questions of the input into the configuration and writes the outcome of each row to the output.
+     * <p>
+     * NDJSON input contains one question object per line. CSV input starts with the header
+     * <code>text,correctAnswer,wrongAnswers...</code>, all columns after the correct answer are wrong answers.
+     *
+     * @param id           the id of the configuration the questions are added to
+     * @param format       the format of the input, {@link MediaType#APPLICATION_NDJSON} or text/csv
+     * @param inputStream  the questions to import
+     * @param outputStream the stream the outcome of each row is written to as NDJSON
+     * @throws ResponseStatusException (404) when the configuration does not exist,
+     *                                 (415) when the format is not supported,
+     *                                 (400) when the CSV header is missing
+     * @throws IOException             if the input cannot be read or the outcome cannot be written
+     */
+    public void importQuestions(
+            final UUID id,
+            final MediaType format,
+            final InputStream inputStream,
+            final OutputStream outputStream
+    ) throws IOException {
+        if (!configurationRepository.existsById(id)) {
+            throw new ResponseStatusException(
+                    HttpStatus.NOT_FOUND,
+                    String.format("There is no configuration with id %s.", id)
+            );
+        }
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        final RowReader rowReader = createRowReader(format, reader);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            final List<BatchItemResultDTO<QuestionDTO>> batch = new ArrayList<>(batchSize);
+            int index = 0;
+            for (Row row = rowReader.next(); row != null; row = rowReader.next()) {
+                batch.add(validate(index++, row));
+                if (batch.size() == batchSize) {
+                    insertAndWrite(id, batch, generator);
+                }
+            }
+            insertAndWrite(id, batch, generator);
+            if (index > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    private RowReader createRowReader(final MediaType format, final BufferedReader reader) throws IOException {
+        if (MediaType.APPLICATION_NDJSON.isCompatibleWith(format)) {
+            return ndjsonRowReader(reader);
+        }
+        if (MediaType.parseMediaType(TEXT_CSV_VALUE).isCompatibleWith(format)) {
+            return csvRowReader(reader);
+        }
+        throw new ResponseStatusException(
+                HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                String.format("questions can be imported as %s or %s", MediaType.APPLICATION_NDJSON, TEXT_CSV_VALUE)
+        );
+    }
+
+    /**
+     * Reads one question per non-blank line. A line that is no valid question is reported as error of its row.
+     */
+    private RowReader ndjsonRowReader(final BufferedReader reader) {
+        return () -> {
+            String line;
+            do {
+                line = reader.readLine();
+            } while (line != null && line.isBlank());
+            if (line == null) {
+                return null;
+            }
+            try {
+                return new Row(objectMapper.readValue(line, QuestionDTO.class), null);
+            } catch (final JsonProcessingException exception) {
+                return new Row(null, "invalid question: " + exception.getOriginalMessage());
+            }
+        };
+    }
+
+    /**
+     * Reads one question per record after the header. If the CSV cannot be parsed any further, the error is reported
+     * as last row.
+     */
+    private RowReader csvRowReader(final BufferedReader reader) throws IOException {
+        final MappingIterator<List<String>> records = new CsvMapper()
+                .readerForListOf(String.class)
+                .with(CsvParser.Feature.WRAP_AS_ARRAY)
+                .readValues(reader);
+        final List<String> header = records.hasNextValue() ? records.nextValue() : List.of();
+        if (
+                header.size() < 2 ||
+                !CSV_TEXT_COLUMN.equals(header.get(0).strip()) ||
+                !CSV_CORRECT_ANSWER_COLUMN.equals(header.get(1).strip())
+        ) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    String.format(
+                            "the first line must be the header %s,%s,...",
+                            CSV_TEXT_COLUMN,
+                            CSV_CORRECT_ANSWER_COLUMN
+                    )
+            );
+        }
+        return new RowReader() {
+            private boolean failed;
+
+            @Override
+            public Row next() {
+                if (failed) {
+                    return null;
+                }
+                try {
+                    return records.hasNext() ? toRow(records.next()) : null;
+                } catch (final RuntimeJsonMappingException exception) {
+                    failed = true;
+                    return new Row(null, "invalid CSV: " + exception.getMessage());
+                }
+            }
+        };
+    }
+
+    private static Row toRow(final List<String> record) {
+        if (record.size() < 2) {
+            return new Row(
+                    null,
+                    String.format(
+                            "a row needs at least the columns %s and %s",
+                            CSV_TEXT_COLUMN,
+                            CSV_CORRECT_ANSWER_COLUMN
+                    )
+            );
+        }
+        final Set<String> wrongAnswers = new HashSet<>();
+        record.subList(2, record.size()).stream().filter(answer -> !answer.isBlank()).forEach(wrongAnswers::add);
+        return new Row(new QuestionDTO(record.get(0), record.get(1), wrongAnswers), null);
+    }
+
+    private BatchItemResultDTO<QuestionDTO> validate(final int index, final Row row) {
+        if (row.error() != null) {
+            return new BatchItemResultDTO<>(index, HttpStatus.BAD_REQUEST.value(), List.of(row.error()), null);
+        }
+        final QuestionDTO questionDTO = row.question();
+        final List<String> errors = new ArrayList<>();
+        for (final ConstraintViolation<QuestionDTO> violation : validator.validate(questionDTO)) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        return new BatchItemResultDTO<>(
+                index,
+                errors.isEmpty() ? HttpStatus.CREATED.value() : HttpStatus.BAD_REQUEST.value(),
+                errors,
+                questionDTO
+        );
+    }
+
+    /**
+     * Inserts the valid questions of the batch, writes the outcome of all rows of the batch and clears it.
+     */
+    private void insertAndWrite(
+            final UUID id,
+            final List<BatchItemResultDTO<QuestionDTO>> batch,
+            final JsonGenerator generator
+    ) throws IOException {
+        final List<BatchItemResultDTO<QuestionDTO>> validRows = batch
+                .stream()
+                .filter(outcome -> outcome.getStatus() == HttpStatus.CREATED.value())
+                .toList();
+        if (!validRows.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(id, validRows));
+                cacheManager.getCache(CacheConfiguration.CONFIGURATION_CACHE).evict(id);
+            } catch (final RuntimeException exception) {
+                log.error("Questions could not be imported into configuration {}", id, exception);
+                validRows.forEach(outcome -> {
+                    outcome.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+                    outcome.setErrors(List.of("the question could not be saved"));
+                });
+            }
+        }
+        for (final BatchItemResultDTO<QuestionDTO> outcome : batch) {
+            generator.writeObject(outcome);
+        }
+        generator.flush();
+        batch.clear();
+    }
+
+    private void insert(final UUID id, final List<BatchItemResultDTO<QuestionDTO>> validRows) {
+        final List<Question> questions = new ArrayList<>(validRows.size());
+        for (final BatchItemResultDTO<QuestionDTO> outcome : validRows) {
+            final Question question = questionMapper.questionDTOToQuestion(outcome.getItem());
+            question.setId(UUID.randomUUID());
+            if (question.getWrongAnswers() == null) {
+                question.setWrongAnswers(new HashSet<>());
+            }
+            questions.add(question);
+        }
+        questionRepository.saveAll(questions);
+        questionRepository.flush();
+        configurationRepository.addQuestions(id, questions.stream().map(Question::getId).toList());
+        configurationRepository.markModified(id, LocalDateTime.now());
+        eventPublisher.publishEvent(new ConfigurationChangedEvent(id));
+        for (int i = 0; i < questions.size(); i++) {
+            validRows.get(i).setItem(questionMapper.questionToQuestionDTO(questions.get(i)));
+        }
+    }
+
+    private record Row(QuestionDTO question, String error) {}
+
+    @FunctionalInterface
+    private interface RowReader {
+        /**
+         * @return the next row, null if there are no more rows
+         */
+        Row next() throws IOException;
+    }
+}
@@ -0,0 +1,143 @@
+package de.unistuttgart.towerdefensebackend.service;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import de.unistuttgart.gamifyit.authentificationvalidator.JWTValidatorService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Import;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * This service caches the access tokens whose signature was verified, so repeated requests with the same token skip
+ * the verification.
+ * The tokens are identified by their SHA-256 digest, so the cache does not hold the tokens themselves.
+ * An entry expires with the token, but at the latest after the configured maximum ttl, so a token signed with a key
+ * that was rotated out of the JWKS is rejected again after at most that time.
+ */
+@Service
+@Import({ JWTValidatorService.class })
+public class VerifiedTokenCache {
+
+    @Autowired
+    private JWTValidatorService jwtValidatorService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${security.verified-token-cache.max-ttl:5m}")
+    private Duration maxTtl;
+
+    @Value("${security.verified-token-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    private Cache<String, VerifiedToken> cache;
+
+    @PostConstruct
+    void initCache() {
+        cache =
+                Caffeine
+                        .newBuilder()
+                        .maximumSize(maximumSize)
+                        .expireAfter(new TokenExpiry())
+                        .recordStats()
+                        .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "verifiedTokens");
+    }
+
+    /**
+     * Verifies the access token, from the cache if it was verified before.
+     *
+     * @param accessToken the access token of the user
+     * @return the verified token
+     * @throws ResponseStatusException (401) if the token is invalid or expired
+     */
+    public VerifiedToken verify(final String accessToken) {
+        final String digest = digest(accessToken);
+        final VerifiedToken cached = cache.getIfPresent(digest);
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            return cached;
+        }
+        jwtValidatorService.validateTokenOrThrow(accessToken);
+        final DecodedJWT jwt = JWT.decode(accessToken);
+        final Instant expiresAt = jwt.getExpiresAt() != null
+                ? jwt.getExpiresAt().toInstant()
+                : Instant.now().plus(maxTtl);
+        final VerifiedToken verifiedToken = new VerifiedToken(jwt.getSubject(), expiresAt);
+        cache.put(digest, verifiedToken);
+        return verifiedToken;
+    }
+
+    /**
+     * Removes all verified tokens, e.g. after a signing key was revoked.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private String digest(final String accessToken) {
+        try {
+            final byte[] digest = MessageDigest
+                    .getInstance("SHA-256")
+                    .digest(accessToken.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (final NoSuchAlgorithmException noSuchAlgorithm) {
+            throw new IllegalStateException("SHA-256 is not supported", noSuchAlgorithm);
+        }
+    }
+
+    /**
+     * A verified access token.
+     *
+     * @param userId    the id of the user the token belongs to
+     * @param expiresAt the time the token expires
+     */
+    public record VerifiedToken(String userId, Instant expiresAt) {}
+
+    /**
+     * Expires the entries with their token, but at the latest after the maximum ttl.
+     */
+    private class TokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(final String digest, final VerifiedToken token, final long currentTime) {
+            final Duration untilExpiry = Duration.between(Instant.now(), token.expiresAt());
+            return Math.max(0, Math.min(untilExpiry.toNanos(), maxTtl.toNanos()));
+        }
+
+        @Override
+        public long expireAfterUpdate(
+                final String digest,
+                final VerifiedToken token,
+                final long currentTime,
+                final long currentDuration
+        ) {
+            return expireAfterCreate(digest, token, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(
+                final String digest,
+                final VerifiedToken token,
+                final long currentTime,
+                final long currentDuration
+        ) {
+            return currentDuration;
+        }
+    }
+}
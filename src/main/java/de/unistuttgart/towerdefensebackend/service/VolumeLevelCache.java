@@ -0,0 +1,158 @@
+package de.unistuttgart.towerdefensebackend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.unistuttgart.towerdefensebackend.clients.OverworldClient;
+import de.unistuttgart.towerdefensebackend.data.KeybindingDTO;
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * This service caches the VOLUME_LEVEL keybinding of the players that is retrieved from the overworld-backend.
+ * A cached value is used without asking the overworld-backend for the configured ttl.
+ * After that it is kept as last known value, which is returned when the overworld-backend fails or is too slow.
+ * <p>
+ * The volume level is retrieved on a bounded executor, so the caller can load other data in the meantime.
+ * If the overworld-backend does not answer before the deadline or the executor is saturated, the last known or the
+ * default volume level is used and the retrieval continues in the background to update the cache.
+ */
+@Service
+@Slf4j
+public class VolumeLevelCache {
+
+    static final String VOLUME_LEVEL_BINDING = "VOLUME_LEVEL";
+
+    @Autowired
+    private OverworldClient overworldClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${overworld.volume-level.default:2}")
+    private int defaultVolumeLevel;
+
+    @Value("${overworld.volume-level.cache.ttl:30s}")
+    private Duration ttl;
+
+    @Value("${overworld.volume-level.cache.retention:1h}")
+    private Duration retention;
+
+    @Value("${overworld.volume-level.cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${overworld.volume-level.deadline:800ms}")
+    private Duration deadline;
+
+    @Value("${overworld.volume-level.executor.pool-size:16}")
+    private int poolSize;
+
+    @Value("${overworld.volume-level.executor.queue-capacity:100}")
+    private int queueCapacity;
+
+    private Cache<String, CachedVolumeLevel> cache;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void initCache() {
+        cache = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(retention).build();
+    }
+
+    @PostConstruct
+    void initExecutor() {
+        final ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                60,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("volume-level-")
+        );
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        executor = ExecutorServiceMetrics.monitor(meterRegistry, threadPoolExecutor, "volumeLevel");
+    }
+
+    @PreDestroy
+    void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Returns the volume level of the player, from the cache if the cached value is younger than the ttl and no
+     * refresh is requested. Otherwise, it is retrieved from the overworld-backend on the executor of this service.
+     *
+     * @param userId      the id of the player
+     * @param accessToken the access token of the player
+     * @param refresh     whether a cached volume level should be ignored
+     * @return the volume level of the player, completed with the last known or the default volume level if it
+     * cannot be retrieved before the deadline
+     */
+    public CompletableFuture<Integer> getVolumeLevel(
+            final String userId,
+            final String accessToken,
+            final boolean refresh
+    ) {
+        final CachedVolumeLevel cached = cache.getIfPresent(userId);
+        if (!refresh && cached != null && cached.loadedAt().plus(ttl).isAfter(Instant.now())) {
+            return CompletableFuture.completedFuture(cached.volumeLevel());
+        }
+        final int fallback = cached != null ? cached.volumeLevel() : defaultVolumeLevel;
+        try {
+            return CompletableFuture
+                    .supplyAsync(() -> load(userId, accessToken, cached), executor)
+                    .completeOnTimeout(fallback, deadline.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (final RejectedExecutionException exception) {
+            log.warn("The volume level of user {} is not retrieved, too many pending requests", userId);
+            return CompletableFuture.completedFuture(fallback);
+        }
+    }
+
+    /**
+     * Removes the cached volume level of the player.
+     *
+     * @param userId the id of the player
+     */
+    public void invalidate(final String userId) {
+        cache.invalidate(userId);
+    }
+
+    private int load(final String userId, final String accessToken, final CachedVolumeLevel lastKnown) {
+        try {
+            final KeybindingDTO keybinding = overworldClient.getKeybindingStatistic(
+                    userId,
+                    VOLUME_LEVEL_BINDING,
+                    accessToken
+            );
+            final int volumeLevel = Integer.parseInt(keybinding.getKey());
+            cache.put(userId, new CachedVolumeLevel(volumeLevel, Instant.now()));
+            return volumeLevel;
+        } catch (final FeignException.NotFound notFound) {
+            log.warn("The overworld-backend does not know the volume level of user {}", userId);
+            invalidate(userId);
+            return defaultVolumeLevel;
+        } catch (final RuntimeException exception) {
+            log.warn("The volume level of user {} could not be retrieved: {}", userId, exception.toString());
+            return lastKnown != null ? lastKnown.volumeLevel() : defaultVolumeLevel;
+        }
+    }
+
+    private record CachedVolumeLevel(int volumeLevel, Instant loadedAt) {}
+}
@@ -0,0 +1,27 @@
+-- Game results that were moved out of game_result by the archival job, see GameResultArchiveService.
+-- The answered questions are kept as parallel arrays of question ids and answers instead of question_result rows.
+-- One partition per month is created by the job before it moves game results of that month.
+CREATE TABLE IF NOT EXISTS game_result_archive (
+    id uuid NOT NULL,
+    configuration_asuuid uuid NOT NULL,
+    player_id varchar(255) NOT NULL,
+    played_time timestamp NOT NULL,
+    question_count integer NOT NULL,
+    correct_answer_count integer NOT NULL,
+    wrong_answer_count integer NOT NULL,
+    points integer NOT NULL,
+    score bigint NOT NULL,
+    rewards integer NOT NULL,
+    correct_question_ids uuid[] NOT NULL,
+    correct_answers text[] NOT NULL,
+    wrong_question_ids uuid[] NOT NULL,
+    wrong_answers text[] NOT NULL,
+    PRIMARY KEY (id, played_time)
+) PARTITION BY RANGE (played_time);
+
+-- Indexes for the result history of a player or a configuration, created on every partition.
+CREATE INDEX IF NOT EXISTS game_result_archive_configuration_history_idx
+    ON game_result_archive (configuration_asuuid, played_time, id);
+
+CREATE INDEX IF NOT EXISTS game_result_archive_player_history_idx
+    ON game_result_archive (player_id, played_time, id);
@@ -0,0 +1,7 @@
+-- Indexes for the result history of a player or a configuration, newest first, paginated by (played_time, id).
+-- They are built concurrently, so the game results can still be saved while the indexes are built.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS game_result_player_history_idx
+    ON game_result (player_id, played_time, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS game_result_configuration_history_idx
+    ON game_result (configuration_asuuid, played_time, id);
@@ -0,0 +1,53 @@
+package de.unistuttgart.towerdefensebackend;
+
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Base class of the tests that run the application against an embedded PostgreSQL database, because the repositories
+ * rely on PostgreSQL statements like ON CONFLICT and SKIP LOCKED. The overworld-backend is replaced by WireMock.
+ * The database, WireMock and therefore the application context are shared by all test classes.
+ * <p>
+ * The outbox is not dispatched on a schedule, the tests dispatch it themselves, and failed deliveries are retried
+ * without backoff.
+ */
+@SpringBootTest
+public abstract class IntegrationTest {
+
+    protected static final EmbeddedPostgres POSTGRES = startPostgres();
+
+    protected static final WireMockServer OVERWORLD = startOverworld();
+
+    @DynamicPropertySource
+    static void properties(final DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("overworld.url", OVERWORLD::baseUrl);
+        registry.add("overworld.outbox.dispatch-interval", () -> Long.MAX_VALUE);
+        registry.add("overworld.outbox.purge-cron", () -> "-");
+        registry.add("overworld.outbox.initial-backoff", () -> "0s");
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static WireMockServer startOverworld() {
+        final WireMockServer overworld = new WireMockServer(options().dynamicPort());
+        overworld.start();
+        return overworld;
+    }
+}
@@ -0,0 +1,98 @@
+package de.unistuttgart.towerdefensebackend.data.mapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.unistuttgart.towerdefensebackend.IntegrationTest;
+import de.unistuttgart.towerdefensebackend.data.ConfigurationDTO;
+import de.unistuttgart.towerdefensebackend.data.QuestionDTO;
+import de.unistuttgart.towerdefensebackend.data.QuestionResult;
+import de.unistuttgart.towerdefensebackend.data.QuestionResultDTO;
+import de.unistuttgart.towerdefensebackend.service.ConfigService;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+class QuestionResultMapperTest extends IntegrationTest {
+
+    private static final int QUESTIONS = 100;
+
+    @Autowired
+    private QuestionResultMapper questionResultMapper;
+
+    @Autowired
+    private ConfigService configService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private List<QuestionDTO> questions;
+
+    @BeforeEach
+    void setUp() {
+        final Set<QuestionDTO> newQuestions = new HashSet<>();
+        for (int i = 0; i < QUESTIONS; i++) {
+            newQuestions.add(new QuestionDTO(null, "question " + i, "answer " + i, Set.of("wrong " + i)));
+        }
+        questions = List.copyOf(configService.saveConfiguration(new ConfigurationDTO(newQuestions)).getQuestions());
+    }
+
+    @Test
+    void resolvingQuestionsTakesOneQueryIndependentOfTheNumberOfAnsweredQuestions() {
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (final int answeredQuestions : List.of(1, 10, QUESTIONS)) {
+            final List<QuestionResultDTO> questionResultDTOs = answers(questions.subList(0, answeredQuestions));
+            statistics.clear();
+
+            final List<QuestionResult> questionResults = questionResultMapper.questionResultDTOsToQuestionResults(
+                    questionResultDTOs
+            );
+
+            assertEquals(1, statistics.getPrepareStatementCount(), answeredQuestions + " answered questions");
+            assertEquals(answeredQuestions, questionResults.size());
+            for (int i = 0; i < answeredQuestions; i++) {
+                assertEquals(questionResultDTOs.get(i).getQuestionUUId(), questionResults.get(i).getQuestion().getId());
+                assertEquals(questionResultDTOs.get(i).getAnswer(), questionResults.get(i).getAnswer());
+            }
+        }
+    }
+
+    @Test
+    void resolvingUnknownQuestionsListsEveryUnknownId() {
+        final UUID firstUnknownId = UUID.randomUUID();
+        final UUID secondUnknownId = UUID.randomUUID();
+        final List<QuestionResultDTO> questionResultDTOs = List.of(
+                new QuestionResultDTO(firstUnknownId, "answer"),
+                new QuestionResultDTO(questions.get(0).getId(), questions.get(0).getCorrectAnswer()),
+                new QuestionResultDTO(secondUnknownId, "answer")
+        );
+
+        final ResponseStatusException exception = assertThrows(
+                ResponseStatusException.class,
+                () -> questionResultMapper.resolveQuestions(questionResultDTOs)
+        );
+
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatus());
+        assertTrue(exception.getReason().contains(firstUnknownId.toString()), exception.getReason());
+        assertTrue(exception.getReason().contains(secondUnknownId.toString()), exception.getReason());
+    }
+
+    private static List<QuestionResultDTO> answers(final List<QuestionDTO> answeredQuestions) {
+        return answeredQuestions
+                .stream()
+                .map(question -> new QuestionResultDTO(question.getId(), question.getCorrectAnswer()))
+                .toList();
+    }
+}
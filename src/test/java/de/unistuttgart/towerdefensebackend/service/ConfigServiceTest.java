@@ -0,0 +1,116 @@
+package de.unistuttgart.towerdefensebackend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.unistuttgart.towerdefensebackend.IntegrationTest;
+import de.unistuttgart.towerdefensebackend.data.ConfigurationDTO;
+import de.unistuttgart.towerdefensebackend.data.QuestionDTO;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class ConfigServiceTest extends IntegrationTest {
+
+    private static final int QUESTIONS = 200;
+
+    @Autowired
+    private ConfigService configService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void updateKeepsUnchangedQuestionsAndDeletesTheStatisticsOfDeletedOnes() {
+        final ConfigurationDTO configuration = configService.saveConfiguration(
+                new ConfigurationDTO(newQuestions(0, QUESTIONS))
+        );
+        final List<QuestionDTO> questions = new ArrayList<>(configuration.getQuestions());
+        questions.sort(Comparator.comparing(QuestionDTO::getText));
+        final List<QuestionDTO> kept = questions.subList(0, QUESTIONS / 2);
+        final List<QuestionDTO> deleted = questions.subList(QUESTIONS / 2, QUESTIONS);
+        // statistics of questions that are not referenced by a game result, e.g. of archived game results
+        for (final QuestionDTO question : questions) {
+            jdbcTemplate.update(
+                    "INSERT INTO question_statistic (question_id, correct_count, wrong_count) VALUES (?, 1, 0)",
+                    question.getId()
+            );
+            jdbcTemplate.update(
+                    "INSERT INTO answer_statistic (question_id, answer, chosen_count) VALUES (?, ?, 1)",
+                    question.getId(),
+                    question.getCorrectAnswer()
+            );
+        }
+
+        final Set<QuestionDTO> update = new HashSet<>(kept);
+        update.addAll(newQuestions(QUESTIONS, QUESTIONS / 2));
+        final ConfigurationDTO updated = configService.updateConfiguration(
+                configuration.getId(),
+                new ConfigurationDTO(update)
+        );
+
+        final Set<UUID> ids = updated.getQuestions().stream().map(QuestionDTO::getId).collect(Collectors.toSet());
+        assertEquals(QUESTIONS, ids.size());
+        assertEquals(configuration.getVersion() + 1, updated.getVersion());
+        for (final QuestionDTO question : kept) {
+            assertTrue(ids.contains(question.getId()));
+            assertEquals(1, statisticCount("question_statistic", question.getId()));
+            assertEquals(1, statisticCount("answer_statistic", question.getId()));
+        }
+        for (final QuestionDTO question : deleted) {
+            assertFalse(ids.contains(question.getId()));
+            assertEquals(0, statisticCount("question_statistic", question.getId()));
+            assertEquals(0, statisticCount("answer_statistic", question.getId()));
+        }
+        assertEquals(updated, configService.getUncachedConfigurationDTO(configuration.getId()));
+    }
+
+    @Test
+    void changesOfAReturnedConfigurationDoNotChangeTheCachedOne() {
+        final ConfigurationDTO saved = configService.saveConfiguration(new ConfigurationDTO(newQuestions(0, 2)));
+        final ConfigurationDTO cached = configService.getConfigurationDTO(saved.getId());
+
+        final ConfigurationDTO withVolumeLevel = configService.getAllConfigurations(
+                saved.getId(),
+                CompletableFuture.completedFuture(3)
+        );
+        assertEquals(3, withVolumeLevel.getVolumeLevel());
+        final QuestionDTO question = withVolumeLevel.getQuestions().iterator().next();
+        question.setText("changed");
+        question.getWrongAnswers().add("changed");
+        withVolumeLevel.getQuestions().clear();
+
+        final ConfigurationDTO reloaded = configService.getConfigurationDTO(saved.getId());
+        assertEquals(cached, reloaded);
+        assertNull(reloaded.getVolumeLevel());
+        assertEquals(2, reloaded.getQuestions().size());
+    }
+
+    private int statisticCount(final String table, final UUID questionId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + table + " WHERE question_id = ?",
+                Integer.class,
+                questionId
+        );
+    }
+
+    private static Set<QuestionDTO> newQuestions(final int first, final int count) {
+        final Set<QuestionDTO> questions = new HashSet<>();
+        for (int i = first; i < first + count; i++) {
+            questions.add(new QuestionDTO(null, String.format("question %04d", i), "answer " + i, Set.of("wrong")));
+        }
+        return questions;
+    }
+}
@@ -0,0 +1,215 @@
+package de.unistuttgart.towerdefensebackend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import de.unistuttgart.towerdefensebackend.IntegrationTest;
+import de.unistuttgart.towerdefensebackend.data.AnswerStatisticDTO;
+import de.unistuttgart.towerdefensebackend.data.BatchItemResultDTO;
+import de.unistuttgart.towerdefensebackend.data.ConfigurationDTO;
+import de.unistuttgart.towerdefensebackend.data.ConfigurationStatisticDTO;
+import de.unistuttgart.towerdefensebackend.data.GameResultDTO;
+import de.unistuttgart.towerdefensebackend.data.QuestionDTO;
+import de.unistuttgart.towerdefensebackend.data.QuestionResultDTO;
+import de.unistuttgart.towerdefensebackend.data.QuestionStatisticDTO;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+
+class ConfigurationStatisticServiceTest extends IntegrationTest {
+
+    private static final String QUOTED_ANSWER = "he said \"x, {y}\"";
+
+    private static final int THREADS = 8;
+
+    private static final int BATCHES_PER_THREAD = 5;
+
+    @Autowired
+    private ConfigurationStatisticService configurationStatisticService;
+
+    @Autowired
+    private GameResultService gameResultService;
+
+    @Autowired
+    private ConfigService configService;
+
+    @Test
+    void countsEveryAnswerOfABatchOfGameResults() {
+        final ConfigurationDTO configuration = saveConfiguration(3);
+        final List<QuestionDTO> questions = sortedQuestions(configuration);
+        final QuestionDTO first = questions.get(0);
+        final QuestionDTO second = questions.get(1);
+        final QuestionDTO third = questions.get(2);
+
+        gameResultService.saveGameResults(
+                List.of(
+                        gameResult(
+                                configuration,
+                                List.of(correct(first), correct(second)),
+                                List.of(new QuestionResultDTO(third.getId(), QUOTED_ANSWER))
+                        ),
+                        gameResult(
+                                configuration,
+                                List.of(correct(first)),
+                                List.of(
+                                        new QuestionResultDTO(second.getId(), "wrong"),
+                                        new QuestionResultDTO(third.getId(), QUOTED_ANSWER)
+                                )
+                        )
+                ),
+                "player " + UUID.randomUUID(),
+                "access token"
+        );
+
+        final Map<UUID, QuestionStatisticDTO> statistics = configurationStatisticService
+                .getQuestionStatistics(configuration.getId())
+                .stream()
+                .collect(Collectors.toMap(QuestionStatisticDTO::getQuestionId, Function.identity()));
+        assertStatistic(statistics.get(first.getId()), 2, 0, Map.of(first.getCorrectAnswer(), 2L));
+        assertStatistic(
+                statistics.get(second.getId()),
+                1,
+                1,
+                Map.of(second.getCorrectAnswer(), 1L, "wrong", 1L)
+        );
+        assertStatistic(statistics.get(third.getId()), 0, 2, Map.of(QUOTED_ANSWER, 2L));
+    }
+
+    @Test
+    void concurrentBatchesCountEveryPlayerOfAConfigurationOnce() throws Exception {
+        final ConfigurationDTO first = saveConfiguration(1);
+        final ConfigurationDTO second = saveConfiguration(1);
+        final List<String> players = List.of(
+                "player " + UUID.randomUUID(),
+                "player " + UUID.randomUUID(),
+                "player " + UUID.randomUUID(),
+                "player " + UUID.randomUUID()
+        );
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final List<Future<Integer>> threads = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < THREADS; thread++) {
+                // every player sends the configurations from two threads, in opposite orders
+                final String player = players.get(thread / 2 % players.size());
+                final List<ConfigurationDTO> configurations = thread % 2 == 0
+                        ? List.of(first, second, first)
+                        : List.of(second, first, second);
+                threads.add(
+                        executor.submit(() -> {
+                            start.await();
+                            int saved = 0;
+                            for (int batch = 0; batch < BATCHES_PER_THREAD; batch++) {
+                                saved += saveCorrectlyAnswered(configurations, player);
+                            }
+                            return saved;
+                        })
+                );
+            }
+            start.countDown();
+            int saved = 0;
+            for (final Future<Integer> future : threads) {
+                saved += future.get();
+            }
+
+            final ConfigurationStatisticDTO firstStatistic = configurationStatisticService.getStatistic(first.getId());
+            final ConfigurationStatisticDTO secondStatistic = configurationStatisticService.getStatistic(
+                    second.getId()
+            );
+            assertEquals(players.size(), firstStatistic.getDistinctPlayers());
+            assertEquals(players.size(), secondStatistic.getDistinctPlayers());
+            assertEquals(saved, firstStatistic.getPlays() + secondStatistic.getPlays());
+            assertEquals(THREADS * BATCHES_PER_THREAD * 3, saved);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Saves a game result with the only question of each configuration answered correctly as one batch.
+     *
+     * @return the number of saved game results
+     */
+    private int saveCorrectlyAnswered(final List<ConfigurationDTO> configurations, final String player) {
+        final List<GameResultDTO> results = configurations
+                .stream()
+                .map(configuration -> {
+                    final QuestionDTO question = configuration.getQuestions().iterator().next();
+                    return gameResult(configuration, List.of(correct(question)), List.of());
+                })
+                .toList();
+        return (int) gameResultService
+                .saveGameResults(results, player, "access token")
+                .stream()
+                .map(BatchItemResultDTO::getStatus)
+                .filter(status -> status == HttpStatus.CREATED.value())
+                .count();
+    }
+
+    private ConfigurationDTO saveConfiguration(final int questionCount) {
+        final Set<QuestionDTO> questions = new HashSet<>();
+        for (int i = 0; i < questionCount; i++) {
+            questions.add(new QuestionDTO(null, "question " + i, "answer " + i, Set.of("wrong")));
+        }
+        return configService.saveConfiguration(new ConfigurationDTO(questions));
+    }
+
+    private static List<QuestionDTO> sortedQuestions(final ConfigurationDTO configuration) {
+        final List<QuestionDTO> questions = new ArrayList<>(configuration.getQuestions());
+        questions.sort(Comparator.comparing(QuestionDTO::getText));
+        return questions;
+    }
+
+    private static QuestionResultDTO correct(final QuestionDTO question) {
+        return new QuestionResultDTO(question.getId(), question.getCorrectAnswer());
+    }
+
+    private static GameResultDTO gameResult(
+            final ConfigurationDTO configuration,
+            final List<QuestionResultDTO> correctAnswers,
+            final List<QuestionResultDTO> wrongAnswers
+    ) {
+        final GameResultDTO result = new GameResultDTO();
+        result.setQuestionCount(correctAnswers.size() + wrongAnswers.size());
+        result.setCorrectQuestionsCount(correctAnswers.size());
+        result.setWrongQuestionsCount(wrongAnswers.size());
+        result.setPoints(10);
+        result.setCorrectAnsweredQuestions(correctAnswers);
+        result.setWrongAnsweredQuestions(wrongAnswers);
+        result.setConfigurationAsUUID(configuration.getId());
+        return result;
+    }
+
+    private static void assertStatistic(
+            final QuestionStatisticDTO statistic,
+            final long correctCount,
+            final long wrongCount,
+            final Map<String, Long> answers
+    ) {
+        assertEquals(correctCount, statistic.getCorrectCount(), statistic.getText());
+        assertEquals(wrongCount, statistic.getWrongCount(), statistic.getText());
+        assertEquals(
+                answers,
+                statistic
+                        .getAnswers()
+                        .stream()
+                        .collect(Collectors.toMap(AnswerStatisticDTO::getAnswer, AnswerStatisticDTO::getChosenCount)),
+                statistic.getText()
+        );
+    }
+}
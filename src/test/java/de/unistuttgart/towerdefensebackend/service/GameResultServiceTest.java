@@ -0,0 +1,167 @@
+package de.unistuttgart.towerdefensebackend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import de.unistuttgart.towerdefensebackend.IntegrationTest;
+import de.unistuttgart.towerdefensebackend.data.ConfigurationDTO;
+import de.unistuttgart.towerdefensebackend.data.GameResultDTO;
+import de.unistuttgart.towerdefensebackend.data.QuestionDTO;
+import de.unistuttgart.towerdefensebackend.data.QuestionResultDTO;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class GameResultServiceTest extends IntegrationTest {
+
+    private static final int THREADS = 8;
+
+    private static final int RESULTS_PER_THREAD = 10;
+
+    @Autowired
+    private GameResultService gameResultService;
+
+    @Autowired
+    private ConfigService configService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void perfectScoresSavedConcurrentlyAreRewardedExactly() throws Exception {
+        final QuestionDTO newQuestion = new QuestionDTO(null, "question", "answer", Set.of("wrong"));
+        final ConfigurationDTO configuration = configService.saveConfiguration(
+                new ConfigurationDTO(new HashSet<>(Set.of(newQuestion)))
+        );
+        final QuestionDTO question = configuration.getQuestions().iterator().next();
+        final List<String> players = List.of("player " + UUID.randomUUID(), "player " + UUID.randomUUID());
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final List<Future<List<Integer>>> threads = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < THREADS; thread++) {
+                final String player = players.get(thread % players.size());
+                final Callable<List<Integer>> saveResults = () -> {
+                    start.await();
+                    final List<Integer> rewards = new ArrayList<>();
+                    for (int i = 0; i < RESULTS_PER_THREAD; i++) {
+                        final GameResultDTO result = perfectResult(configuration.getId(), question);
+                        gameResultService.saveGameResult(result, player, "access token");
+                        rewards.add(result.getRewards());
+                    }
+                    return rewards;
+                };
+                threads.add(executor.submit(saveResults));
+            }
+            start.countDown();
+            final List<Integer> rewards = new ArrayList<>();
+            for (final Future<List<Integer>> future : threads) {
+                rewards.addAll(future.get());
+            }
+
+            final int resultsPerPlayer = THREADS * RESULTS_PER_THREAD / players.size();
+            final Map<Integer, Long> rewardCounts = rewards
+                    .stream()
+                    .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+            assertEquals(Map.of(10, 3L * players.size(), 5, (resultsPerPlayer - 3L) * players.size()), rewardCounts);
+            for (final String player : players) {
+                final Map<String, Object> saved = jdbcTemplate.queryForMap(
+                        "SELECT COUNT(*) AS results, SUM(rewards) AS rewards FROM game_result " +
+                        "WHERE player_id = ? AND configuration_asuuid = ?",
+                        player,
+                        configuration.getId()
+                );
+                assertEquals(resultsPerPlayer, ((Number) saved.get("results")).intValue(), player);
+                assertEquals(3 * 10 + (resultsPerPlayer - 3) * 5, ((Number) saved.get("rewards")).intValue(), player);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void batchesWithPerfectScoresInOppositeOrderDoNotDeadlock() throws Exception {
+        final List<UUID> configurationIds = new ArrayList<>();
+        final Map<UUID, QuestionDTO> questions = new HashMap<>();
+        for (int i = 0; i < 2; i++) {
+            final QuestionDTO newQuestion = new QuestionDTO(null, "question", "answer", Set.of("wrong"));
+            final ConfigurationDTO configuration = configService.saveConfiguration(
+                    new ConfigurationDTO(new HashSet<>(Set.of(newQuestion)))
+            );
+            configurationIds.add(configuration.getId());
+            questions.put(configuration.getId(), configuration.getQuestions().iterator().next());
+        }
+        final String player = "player " + UUID.randomUUID();
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final List<Future<?>> threads = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < THREADS; thread++) {
+                final UUID first = configurationIds.get(thread % 2);
+                final UUID second = configurationIds.get((thread + 1) % 2);
+                final Callable<Object> saveBatches = () -> {
+                    start.await();
+                    for (int i = 0; i < RESULTS_PER_THREAD; i++) {
+                        gameResultService.saveGameResults(
+                                List.of(
+                                        perfectResult(first, questions.get(first)),
+                                        perfectResult(second, questions.get(second)),
+                                        perfectResult(first, questions.get(first))
+                                ),
+                                player,
+                                "access token"
+                        );
+                    }
+                    return null;
+                };
+                threads.add(executor.submit(saveBatches));
+            }
+            start.countDown();
+            for (final Future<?> future : threads) {
+                future.get();
+            }
+
+            assertEquals(
+                    THREADS * RESULTS_PER_THREAD * 3,
+                    jdbcTemplate.queryForObject(
+                            "SELECT COUNT(*) FROM game_result WHERE player_id = ?",
+                            Integer.class,
+                            player
+                    )
+            );
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static GameResultDTO perfectResult(final UUID configurationId, final QuestionDTO question) {
+        final GameResultDTO result = new GameResultDTO();
+        result.setQuestionCount(1);
+        result.setCorrectQuestionsCount(1);
+        result.setWrongQuestionsCount(0);
+        result.setPoints(10);
+        result.setCorrectAnsweredQuestions(
+                List.of(new QuestionResultDTO(question.getId(), question.getCorrectAnswer()))
+        );
+        result.setWrongAnsweredQuestions(List.of());
+        result.setConfigurationAsUUID(configurationId);
+        return result;
+    }
+}
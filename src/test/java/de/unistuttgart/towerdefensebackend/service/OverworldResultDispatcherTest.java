@@ -0,0 +1,235 @@
+package de.unistuttgart.towerdefensebackend.service;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.matching.RequestPatternBuilder;
+import de.unistuttgart.towerdefensebackend.IntegrationTest;
+import de.unistuttgart.towerdefensebackend.data.OverworldResultDTO;
+import de.unistuttgart.towerdefensebackend.data.OverworldResultOutboxEntry;
+import de.unistuttgart.towerdefensebackend.repositories.OverworldResultOutboxRepository;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+class OverworldResultDispatcherTest extends IntegrationTest {
+
+    private static final String SUBMIT_PATH = "/internal/submit-game-pass";
+
+    @Autowired
+    private OverworldResultDispatcher dispatcher;
+
+    @Autowired
+    private OverworldResultOutboxRepository outboxRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${overworld.outbox.batch-size}")
+    private int batchSize;
+
+    @BeforeEach
+    void setUp() {
+        OVERWORLD.resetAll();
+        outboxRepository.deleteAll();
+        resultCircuitBreaker().reset();
+    }
+
+    @Test
+    void deliversPendingResultsAfterTheOverworldBackendRecovers() {
+        OVERWORLD.stubFor(post(urlPathEqualTo(SUBMIT_PATH)).willReturn(aResponse().withStatus(503)));
+        final List<OverworldResultOutboxEntry> entries = saveEntries(3);
+
+        dispatcher.dispatchPendingResults();
+
+        for (final OverworldResultOutboxEntry entry : outboxRepository.findAll()) {
+            assertEquals(OverworldResultOutboxEntry.Status.PENDING, entry.getStatus());
+            assertEquals(1, entry.getAttempts());
+            assertNotNull(entry.getLastError());
+            assertNotNull(entry.getAccessToken());
+        }
+
+        OVERWORLD.stubFor(post(urlPathEqualTo(SUBMIT_PATH)).willReturn(ok()));
+        dispatcher.dispatchPendingResults();
+
+        for (final OverworldResultOutboxEntry entry : outboxRepository.findAll()) {
+            assertEquals(OverworldResultOutboxEntry.Status.DELIVERED, entry.getStatus());
+            assertNotNull(entry.getDeliveredAt());
+            assertNull(entry.getAccessToken());
+        }
+        assertEquals(2 * entries.size(), OVERWORLD.findAll(submitted()).size());
+    }
+
+    @Test
+    void concurrentDispatchersDeliverEveryResultOnce() throws Exception {
+        OVERWORLD.stubFor(post(urlPathEqualTo(SUBMIT_PATH)).willReturn(ok().withFixedDelay(10)));
+        final List<OverworldResultOutboxEntry> entries = saveEntries(120);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> dispatchers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                dispatchers.add(executor.submit(dispatcher::dispatchPendingResults));
+            }
+            for (final Future<?> future : dispatchers) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        final Map<String, Long> deliveriesPerUser = OVERWORLD
+                .findAll(submitted())
+                .stream()
+                .map(request -> readUserId(request.getBodyAsString()))
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        assertEquals(entries.size(), deliveriesPerUser.size());
+        deliveriesPerUser.forEach((userId, deliveries) -> assertEquals(1, deliveries, userId));
+        assertEquals(0, outboxRepository.countByStatus(OverworldResultOutboxEntry.Status.PENDING));
+    }
+
+    @Test
+    void entriesInFlightAreLeasedForABatchOfTimeouts() throws Exception {
+        OVERWORLD.stubFor(post(urlPathEqualTo(SUBMIT_PATH)).willReturn(ok().withFixedDelay(300)));
+        final List<OverworldResultOutboxEntry> entries = saveEntries(3);
+
+        final CompletableFuture<Void> firstDispatcher = CompletableFuture.runAsync(dispatcher::dispatchPendingResults);
+        while (OVERWORLD.findAll(submitted()).isEmpty()) {
+            Thread.sleep(10);
+        }
+        // the default batch size of 50 times the connect and read timeouts of the result client
+        final LocalDateTime leasedUntil = LocalDateTime.now().plus(Duration.ofMillis(50 * (500 + 3000)));
+        final OverworldResultOutboxEntry inFlight = outboxRepository.findById(entries.get(2).getId()).orElseThrow();
+        assertTrue(inFlight.getNextAttemptAt().isAfter(leasedUntil), String.valueOf(inFlight.getNextAttemptAt()));
+
+        dispatcher.dispatchPendingResults();
+        firstDispatcher.get();
+
+        assertEquals(entries.size(), OVERWORLD.findAll(submitted()).size());
+        assertEquals(
+                entries.size(),
+                outboxRepository.countByStatus(OverworldResultOutboxEntry.Status.DELIVERED)
+        );
+    }
+
+    @Test
+    void purgesDeliveredAndFailedEntriesAfterTheRetention() {
+        final OverworldResultOutboxEntry oldDelivered = saveEntry(OverworldResultOutboxEntry.Status.DELIVERED, 8);
+        final OverworldResultOutboxEntry oldFailed = saveEntry(OverworldResultOutboxEntry.Status.FAILED, 8);
+        final OverworldResultOutboxEntry oldPending = saveEntry(OverworldResultOutboxEntry.Status.PENDING, 8);
+        final OverworldResultOutboxEntry recentDelivered = saveEntry(OverworldResultOutboxEntry.Status.DELIVERED, 1);
+
+        dispatcher.purgeCompletedEntries();
+
+        assertTrue(outboxRepository.findById(oldDelivered.getId()).isEmpty());
+        assertTrue(outboxRepository.findById(oldFailed.getId()).isEmpty());
+        assertTrue(outboxRepository.findById(oldPending.getId()).isPresent());
+        assertTrue(outboxRepository.findById(recentDelivered.getId()).isPresent());
+    }
+
+    @Test
+    void stopsAtTheOpenCircuitBreakerAndReleasesTheClaimedBatchAtOnce() {
+        OVERWORLD.stubFor(post(urlPathEqualTo(SUBMIT_PATH)).willReturn(ok()));
+        saveEntries(2 * batchSize + 1);
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        resultCircuitBreaker().transitionToForcedOpenState();
+        try {
+            statistics.clear();
+            dispatcher.dispatchPendingResults();
+        } finally {
+            resultCircuitBreaker().reset();
+        }
+
+        assertEquals(0, OVERWORLD.findAll(submitted()).size());
+        // only the first batch is claimed, entry by entry, and then released with a single bulk update
+        assertEquals(batchSize, statistics.getEntityUpdateCount());
+        final List<OverworldResultOutboxEntry> entries = outboxRepository.findAll();
+        assertEquals(
+                batchSize,
+                entries.stream().filter(entry -> entry.getNextAttemptAt().isAfter(entry.getCreatedAt())).count()
+        );
+        for (final OverworldResultOutboxEntry entry : entries) {
+            assertEquals(OverworldResultOutboxEntry.Status.PENDING, entry.getStatus());
+            assertEquals(0, entry.getAttempts());
+        }
+
+        dispatcher.dispatchPendingResults();
+
+        assertEquals(entries.size(), OVERWORLD.findAll(submitted()).size());
+        assertEquals(0, outboxRepository.countByStatus(OverworldResultOutboxEntry.Status.PENDING));
+    }
+
+    private List<OverworldResultOutboxEntry> saveEntries(final int count) {
+        final List<OverworldResultOutboxEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entries.add(
+                    new OverworldResultOutboxEntry(
+                            new OverworldResultDTO("TOWERDEFENSE", UUID.randomUUID(), 100, "player " + i, 10),
+                            "access token " + i
+                    )
+            );
+        }
+        return outboxRepository.saveAll(entries);
+    }
+
+    private OverworldResultOutboxEntry saveEntry(final OverworldResultOutboxEntry.Status status, final int ageInDays) {
+        final OverworldResultOutboxEntry entry = new OverworldResultOutboxEntry(
+                new OverworldResultDTO("TOWERDEFENSE", UUID.randomUUID(), 100, "player", 10),
+                "access token"
+        );
+        entry.setStatus(status);
+        entry.setCreatedAt(LocalDateTime.now().minusDays(ageInDays));
+        return outboxRepository.save(entry);
+    }
+
+    private CircuitBreaker resultCircuitBreaker() {
+        return circuitBreakerRegistry.circuitBreaker("resultClient");
+    }
+
+    private static RequestPatternBuilder submitted() {
+        return postRequestedFor(urlPathEqualTo(SUBMIT_PATH));
+    }
+
+    private String readUserId(final String body) {
+        try {
+            return objectMapper.readValue(body, OverworldResultDTO.class).getUserId();
+        } catch (final Exception exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}